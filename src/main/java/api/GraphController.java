@@ -1,27 +1,66 @@
 package api;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
 import config.ConfigLoader;
 import graph.GraphProcessor;
+import graph.IngestionJob;
+import graph.IngestionJobs;
+import spark.Response;
+import storage.CachingGraphAnalysis;
+import storage.CoalescingGraphAnalysis;
 import storage.GraphAnalysis;
+import storage.IndexedGraphAnalysis;
+import storage.MaximumDistance;
 import utils.ErrorLogger;
 import utils.GraphWordException;
 import utils.ValidationUtils;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import static spark.Spark.*;
 
 public class GraphController {
+    private static final int DEFAULT_DISTANCE_BUDGET_MILLIS = 100;
+    private static final int MAX_PATH_COUNT = 100;
+    private static final int MAX_PATH_LENGTH = 50;
+    private static final int MAX_PATH_PAIRS = 10_000;
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     private final GraphProcessor graphProcessor;
     private final GraphAnalysis graphAnalysis;
+    private final IngestionJobs ingestionJobs;
     private final Gson gson;
+    // Job fields without a value yet (total files, ETA, error) are reported as null instead of left out
+    private final Gson jobGson;
 
     public GraphController(GraphProcessor graphProcessor, GraphAnalysis graphAnalysis) {
+        this(graphProcessor, graphAnalysis, null);
+    }
+
+    /**
+     * @param ingestionJobs when not null, {@code POST /graph/process} queues a background job and returns
+     *                      its id instead of processing the directory on the request thread
+     */
+    public GraphController(GraphProcessor graphProcessor, GraphAnalysis graphAnalysis, IngestionJobs ingestionJobs) {
         this.graphProcessor = graphProcessor;
         this.graphAnalysis = graphAnalysis;
+        this.ingestionJobs = ingestionJobs;
         this.gson = new Gson();
+        this.jobGson = new GsonBuilder().serializeNulls().create();
     }
 
     public GraphProcessor getGraphProcessor() {
@@ -32,6 +71,10 @@ public class GraphController {
         return graphAnalysis;
     }
 
+    public IngestionJobs getIngestionJobs() {
+        return ingestionJobs;
+    }
+
     public void setupRoutes() {
 
         // Endpoint: Process all files in a directory
@@ -40,6 +83,12 @@ public class GraphController {
                 String directoryPath = ConfigLoader.get("libros.directory");
                 ValidationUtils.validateNotEmpty(directoryPath, "Configuration 'libros.directory' cannot be empty.");
 
+                if (ingestionJobs != null) {
+                    IngestionJob job = ingestionJobs.submit(directoryPath);
+                    res.status(202);
+                    res.type("application/json");
+                    return jobGson.toJson(job.describe());
+                }
                 graphProcessor.processDirectory(directoryPath);
                 res.status(200);
                 return "All files processed successfully!";
@@ -50,6 +99,26 @@ public class GraphController {
             }
         });
 
+        // Endpoint: Status of the ingestion jobs
+        get("/graph/jobs", (req, res) -> {
+            res.type("application/json");
+            if (ingestionJobs == null) {
+                return gson.toJson(List.of());
+            }
+            return jobGson.toJson(ingestionJobs.list().stream().map(IngestionJob::describe).toList());
+        });
+
+        // Endpoint: Status of one ingestion job
+        get("/graph/jobs/:id", (req, res) -> {
+            IngestionJob job = ingestionJobs != null ? ingestionJobs.get(req.params(":id")) : null;
+            res.type("application/json");
+            if (job == null) {
+                res.status(404);
+                return gson.toJson(Map.of("error", "Unknown job: " + req.params(":id")));
+            }
+            return jobGson.toJson(job.describe());
+        });
+
         // Endpoint: Shortest path
         get("/graph/shortest-path", (req, res) -> {
             try {
@@ -69,12 +138,60 @@ public class GraphController {
             }
         });
 
+        // Endpoint: Shortest paths of a batch of pairs, answered in input order
+        post("/graph/shortest-paths", (req, res) -> {
+            try {
+                List<Map<String, String>> requested;
+                try {
+                    requested = gson.fromJson(req.body(), new TypeToken<List<Map<String, String>>>() {}.getType());
+                } catch (JsonParseException e) {
+                    throw new GraphWordException("Body must be a JSON array of {\"source\", \"target\"} objects.");
+                }
+                if (requested == null || requested.isEmpty()) {
+                    throw new GraphWordException("Body must contain at least one pair.");
+                }
+                if (requested.size() > MAX_PATH_PAIRS) {
+                    throw new GraphWordException("At most " + MAX_PATH_PAIRS + " pairs can be requested at once.");
+                }
+
+                List<List<String>> pairs = new ArrayList<>(requested.size());
+                for (int i = 0; i < requested.size(); i++) {
+                    Map<String, String> pair = requested.get(i);
+                    String source = pair != null ? pair.get("source") : null;
+                    String target = pair != null ? pair.get("target") : null;
+                    ValidationUtils.validateNotEmpty(source, "Pair " + i + ": 'source' is required.");
+                    ValidationUtils.validateNotEmpty(target, "Pair " + i + ": 'target' is required.");
+                    pairs.add(List.of(source, target));
+                }
+
+                List<List<String>> paths = graphAnalysis.findShortestPaths(pairs);
+                return streamJson(res, writer -> {
+                    writer.beginArray();
+                    for (int i = 0; i < pairs.size(); i++) {
+                        writer.beginObject();
+                        writer.name("source").value(pairs.get(i).get(0));
+                        writer.name("target").value(pairs.get(i).get(1));
+                        writer.name("path");
+                        writeStrings(writer, paths.get(i));
+                        writer.endObject();
+                    }
+                    writer.endArray();
+                });
+            } catch (GraphWordException e) {
+                ErrorLogger.logError("Error finding shortest paths", e);
+                res.status(400);
+                return gson.toJson(Map.of("error", e.getMessage()));
+            }
+        });
+
         // Endpoint: Communities
         get("/graph/communities", (req, res) -> {
             try {
-                List<List<String>> communities = graphAnalysis.findCommunities();
-                res.type("application/json");
-                return gson.toJson(communities);
+                return streamJson(res, writer -> {
+                    writer.beginArray();
+                    graphAnalysis.forEachCommunity(community -> writeStrings(writer, community));
+                    writer.endArray();
+                });
             } catch (GraphWordException e) {
                 ErrorLogger.logError("Error retrieving communities", e);
                 res.status(400);
@@ -85,9 +202,11 @@ public class GraphController {
         // Endpoint: Isolated nodes
         get("/graph/isolated-nodes", (req, res) -> {
             try {
-                List<String> isolatedNodes = graphAnalysis.findIsolatedNodes();
-                res.type("application/json");
-                return gson.toJson(isolatedNodes);
+                return streamJson(res, writer -> {
+                    writer.beginArray();
+                    graphAnalysis.forEachIsolatedNode(word -> writeString(writer, word));
+                    writer.endArray();
+                });
             } catch (GraphWordException e) {
                 ErrorLogger.logError("Error retrieving isolated nodes", e);
                 res.status(400);
@@ -104,7 +223,18 @@ public class GraphController {
                 ValidationUtils.validateNotEmpty(source, "Parameter 'source' is required.");
                 ValidationUtils.validateNotEmpty(target, "Parameter 'target' is required.");
 
-                var allPaths = graphAnalysis.findAllPaths(source, target);
+                int k = ValidationUtils.parseInt(req.queryParams("k"), GraphAnalysis.DEFAULT_PATH_COUNT,
+                        "Parameter 'k' must be an integer.");
+                int maxLength = ValidationUtils.parseInt(req.queryParams("maxLength"),
+                        GraphAnalysis.DEFAULT_MAX_PATH_LENGTH, "Parameter 'maxLength' must be an integer.");
+                if (k < 1 || k > MAX_PATH_COUNT) {
+                    throw new GraphWordException("Parameter 'k' must be between 1 and " + MAX_PATH_COUNT + ".");
+                }
+                if (maxLength < 1 || maxLength > MAX_PATH_LENGTH) {
+                    throw new GraphWordException("Parameter 'maxLength' must be between 1 and " + MAX_PATH_LENGTH + ".");
+                }
+
+                var allPaths = graphAnalysis.findAllPaths(source, target, k, maxLength);
                 res.type("application/json");
                 return gson.toJson(allPaths);
             } catch (GraphWordException e) {
@@ -117,9 +247,27 @@ public class GraphController {
         // Endpoint: Maximum distance in the graph
         get("/graph/maximum-distance", (req, res) -> {
             try {
-                int maxDistance = graphAnalysis.findMaximumDistance();
+                String mode = req.queryParams("mode");
+                if (mode == null || mode.isBlank()) {
+                    mode = ConfigLoader.get("analysis.maximumDistance.mode");
+                }
+                mode = mode == null || mode.isBlank() ? "exact" : mode.trim().toLowerCase();
+
+                MaximumDistance maxDistance;
+                if (mode.equals("approximate")) {
+                    int defaultBudget = ValidationUtils.parseInt(ConfigLoader.get("analysis.maximumDistance.budgetMillis"),
+                            DEFAULT_DISTANCE_BUDGET_MILLIS,
+                            "Configuration 'analysis.maximumDistance.budgetMillis' must be an integer.");
+                    int budgetMillis = ValidationUtils.parseInt(req.queryParams("budgetMillis"), defaultBudget,
+                            "Parameter 'budgetMillis' must be an integer.");
+                    maxDistance = graphAnalysis.estimateMaximumDistance(budgetMillis);
+                } else if (mode.equals("exact")) {
+                    maxDistance = graphAnalysis.findMaximumDistanceWithEndpoints();
+                } else {
+                    throw new GraphWordException("Parameter 'mode' must be 'exact' or 'approximate'.");
+                }
                 res.type("application/json");
-                return gson.toJson(Map.of("maximumDistance", maxDistance));
+                return gson.toJson(maxDistance);
             } catch (GraphWordException e) {
                 ErrorLogger.logError("Error retrieving maximum distance", e);
                 res.status(400);
@@ -127,15 +275,73 @@ public class GraphController {
             }
         });
 
+        // Endpoint: Connected component sizes
+        get("/graph/components", (req, res) -> {
+            try {
+                Map<Integer, Integer> componentSizes = graphAnalysis.findComponentSizes();
+                int componentCount = componentSizes.values().stream().mapToInt(Integer::intValue).sum();
+                res.type("application/json");
+                return gson.toJson(Map.of("componentCount", componentCount, "componentSizes", componentSizes));
+            } catch (GraphWordException e) {
+                ErrorLogger.logError("Error retrieving components", e);
+                res.status(400);
+                return gson.toJson(Map.of("error", e.getMessage()));
+            }
+        });
+
+        // Endpoint: Number of nodes per degree
+        get("/graph/degree-histogram", (req, res) -> {
+            try {
+                Map<Integer, Integer> histogram = graphAnalysis.findDegreeHistogram();
+                res.type("application/json");
+                return gson.toJson(histogram);
+            } catch (GraphWordException e) {
+                ErrorLogger.logError("Error retrieving degree histogram", e);
+                res.status(400);
+                return gson.toJson(Map.of("error", e.getMessage()));
+            }
+        });
+
+        // Endpoint: Result cache counters
+        get("/graph/cache", (req, res) -> {
+            CachingGraphAnalysis cache = layer(CachingGraphAnalysis.class);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", cache != null);
+            if (cache != null) {
+                stats.put("version", cache.getVersion());
+                stats.put("entries", cache.size());
+                stats.put("maxEntries", cache.getMaxEntries());
+                stats.put("hits", cache.getHitCount());
+                stats.put("misses", cache.getMissCount());
+            }
+            res.type("application/json");
+            return gson.toJson(stats);
+        });
+
+        // Endpoint: Request coalescing counters
+        get("/graph/coalescing", (req, res) -> {
+            CoalescingGraphAnalysis coalescing = layer(CoalescingGraphAnalysis.class);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", coalescing != null);
+            if (coalescing != null) {
+                stats.put("computations", coalescing.getComputationCount());
+                stats.put("coalescedCalls", coalescing.getCoalescedCount());
+                stats.put("inFlight", coalescing.getInFlightCount());
+                stats.put("waiters", coalescing.getWaiterCount());
+                stats.put("peakWaiters", coalescing.getPeakWaiterCount());
+            }
+            res.type("application/json");
+            return gson.toJson(stats);
+        });
+
         // Endpoint: High connectivity nodes
         get("/graph/high-connectivity-nodes", (req, res) -> {
             try {
                 String minDegreeParam = req.queryParams("minDegree");
-                int minDegree = minDegreeParam != null ? Integer.parseInt(minDegreeParam) : 6;
+                int minDegree = ValidationUtils.parseInt(minDegreeParam, 6, "Parameter 'minDegree' must be an integer.");
 
                 var highConnectivityNodes = graphAnalysis.findHighConnectivityNodes(minDegree);
-                res.type("application/json");
-                return gson.toJson(highConnectivityNodes);
+                return streamJson(res, writer -> writeStrings(writer, highConnectivityNodes));
             } catch (GraphWordException e) {
                 ErrorLogger.logError("Error retrieving high connectivity nodes", e);
                 res.status(400);
@@ -149,10 +355,9 @@ public class GraphController {
                 String degreeParam = req.queryParams("degree");
                 ValidationUtils.validateNotEmpty(degreeParam, "Parameter 'degree' is required.");
 
-                int degree = Integer.parseInt(degreeParam);
+                int degree = ValidationUtils.parseInt(degreeParam, 0, "Parameter 'degree' must be an integer.");
                 var nodes = graphAnalysis.findNodesByDegree(degree);
-                res.type("application/json");
-                return gson.toJson(nodes);
+                return streamJson(res, writer -> writeStrings(writer, nodes));
             } catch (GraphWordException e) {
                 ErrorLogger.logError("Error retrieving nodes by degree", e);
                 res.status(400);
@@ -160,4 +365,77 @@ public class GraphController {
             }
         });
     }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    // Escribe el JSON directamente en la respuesta, sin construirlo entero en memoria. Si falla antes de
+    // enviar el primer bloque, la petición todavía puede contestarse con un error
+    private Object streamJson(Response res, JsonBody body) throws IOException {
+        HttpServletResponse raw = res.raw();
+        raw.setContentType("application/json");
+        JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(raw.getOutputStream(), StandardCharsets.UTF_8), STREAM_BUFFER_SIZE));
+        try {
+            body.write(writer);
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (GraphWordException e) {
+            if (!raw.isCommitted()) {
+                raw.resetBuffer();
+                throw e;
+            }
+            // Parte de la respuesta ya se ha enviado: se corta la conexión para que el cliente no la tome por completa
+            ErrorLogger.logError("Error while streaming response", e);
+            if (raw instanceof org.eclipse.jetty.server.Response jettyResponse) {
+                jettyResponse.getHttpChannel().abort(e);
+            } else {
+                raw.getOutputStream().close();
+            }
+        }
+        return "";
+    }
+
+    private static void writeStrings(JsonWriter writer, Collection<String> values) {
+        try {
+            writer.beginArray();
+            for (String value : values) {
+                writer.value(value);
+            }
+            writer.endArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(JsonWriter writer, String value) {
+        try {
+            writer.value(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Busca una capa concreta entre los decoradores de GraphAnalysis
+    private <T extends GraphAnalysis> T layer(Class<T> type) {
+        GraphAnalysis current = graphAnalysis;
+        while (current != null) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+            if (current instanceof CachingGraphAnalysis cache) {
+                current = cache.getDelegate();
+            } else if (current instanceof CoalescingGraphAnalysis coalescing) {
+                current = coalescing.getDelegate();
+            } else if (current instanceof IndexedGraphAnalysis indexed) {
+                current = indexed.getDelegate();
+            } else {
+                current = null;
+            }
+        }
+        return null;
+    }
 }
@@ -1,12 +1,36 @@
 package config;
 
 import api.GraphController;
+import engine.CsrGraph;
+import engine.GraphSnapshot;
+import graph.FileManifest;
 import graph.GraphProcessor;
+import graph.IngestionJobs;
+import storage.CachingGraphAnalysis;
+import storage.CoalescingGraphAnalysis;
+import storage.CommunityWriteBack;
+import storage.ComponentIndex;
+import storage.ConnectMode;
+import storage.DegreeIndex;
+import storage.GraphChangeListener;
 import storage.GraphManipulation;
 import storage.GraphAnalysis;
 import storage.GraphManipulator;
+import storage.GraphSnapshotStore;
 import storage.GraphAnalyzer;
+import storage.IndexedGraphAnalysis;
+import storage.InMemoryGraphAnalyzer;
 import storage.LocalFileReader;
+import storage.Neo4jGraphLoader;
+import storage.ProjectionManager;
+import storage.SchemaManager;
+import utils.GraphWordException;
+import utils.ValidationUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 
 public class AppConfig {
 
@@ -16,13 +40,215 @@ public class AppConfig {
         String user = ConfigLoader.get("neo4j.user");
         String password = ConfigLoader.get("neo4j.password");
 
+        // Preparar el esquema de Neo4j antes de aceptar peticiones
+        if (!"false".equalsIgnoreCase(ConfigLoader.get("neo4j.schema.bootstrap"))) {
+            bootstrapSchema(uri, user, password);
+        }
+
         // Crear dependencias
-        GraphManipulation graphManipulation = new GraphManipulator(uri, user, password);
-        GraphAnalysis graphAnalysis = new GraphAnalyzer(uri, user, password);
-        GraphProcessor graphProcessor = new GraphProcessor(new LocalFileReader(), graphManipulation);
+        GraphManipulation graphManipulation = new GraphManipulator(uri, user, password, connectMode(),
+                intSetting("graph.insert.batchSize", GraphManipulator.DEFAULT_INSERT_BATCH_SIZE));
+        ProjectionManager projectionManager = new ProjectionManager(graphManipulation, "myGraph",
+                intSetting("graph.projection.quietPeriodMillis", 0), projectionFreshness());
+        List<GraphChangeListener> graphViews = new ArrayList<>();
+        GraphAnalysis graphAnalysis;
+        InMemoryGraphAnalyzer inMemoryAnalyzer = null;
+        GraphSnapshotStore snapshotStore = null;
+        CsrGraph snapshot = null;
+        boolean communityWriteBack = "true".equalsIgnoreCase(ConfigLoader.get("analysis.communities.writeBack"));
+        if ("memory".equals(analysisEngine())) {
+            snapshotStore = snapshotStore(uri, user, password);
+            snapshot = snapshotStore != null ? loadSnapshot(snapshotStore) : null;
+            inMemoryAnalyzer = snapshot != null ? new InMemoryGraphAnalyzer(snapshot) : new InMemoryGraphAnalyzer();
+            if (snapshot == null) {
+                graphViews.add(inMemoryAnalyzer);
+            } else {
+                graphManipulation.addGraphChangeListener(inMemoryAnalyzer);
+            }
+            graphAnalysis = inMemoryAnalyzer;
+        } else {
+            graphAnalysis = new GraphAnalyzer(uri, user, password, projectionManager, communityWriteBack);
+        }
+        GraphAnalysis communityEngine = graphAnalysis;
+        if ("true".equalsIgnoreCase(ConfigLoader.get("analysis.indexes"))) {
+            ComponentIndex componentIndex = new ComponentIndex();
+            DegreeIndex degreeIndex = new DegreeIndex();
+            graphViews.add(componentIndex);
+            graphViews.add(degreeIndex);
+            graphAnalysis = new IndexedGraphAnalysis(graphAnalysis, componentIndex, degreeIndex);
+        }
+        if (snapshot != null) {
+            // El grafo ya está en memoria: las demás vistas se construyen a partir de él
+            GraphSnapshotStore.replay(snapshot, graphViews.toArray(new GraphChangeListener[0]));
+            graphViews.forEach(graphManipulation::addGraphChangeListener);
+        } else {
+            loadGraphViews(uri, user, password, graphManipulation, graphViews);
+        }
+        if (communityWriteBack) {
+            // Se escribe en segundo plano cuando la ingesta lleva un tiempo sin escrituras
+            graphManipulation.addGraphChangeListener(new CommunityWriteBack(communityEngine, graphManipulation,
+                    graphStamps(uri, user, password), inMemoryAnalyzer == null ? projectionManager : null,
+                    intSetting("analysis.communities.writeBackDelayMillis", 5000)));
+        }
+        GraphProcessor graphProcessor = new GraphProcessor(localFileReader(), graphManipulation, projectionManager,
+                intSetting("ingestion.extractionThreads", 1),
+                intSetting("ingestion.writeConcurrency", 1),
+                intSetting("ingestion.streamBatchSize", 0),
+                fileManifest());
+        if (snapshotStore != null) {
+            GraphSnapshotStore store = snapshotStore;
+            InMemoryGraphAnalyzer analyzer = inMemoryAnalyzer;
+            if (snapshot == null) {
+                saveSnapshot(store, analyzer);
+            }
+            graphProcessor.addDirectoryListener(() -> saveSnapshot(store, analyzer));
+        }
+        if ("true".equalsIgnoreCase(ConfigLoader.get("analysis.coalescing"))) {
+            // Antes que la caché: una petición posterior a la escritura no se une a un cálculo anterior
+            CoalescingGraphAnalysis coalescing = new CoalescingGraphAnalysis(graphAnalysis);
+            graphManipulation.addGraphChangeListener(coalescing);
+            graphProcessor.addDirectoryListener(coalescing::invalidate);
+            graphAnalysis = coalescing;
+        }
+        int cacheSize = intSetting("analysis.cache.size", 0);
+        if (cacheSize > 0) {
+            // Se registra después de las vistas para invalidar cuando ya reflejan la escritura
+            CachingGraphAnalysis cache = new CachingGraphAnalysis(graphAnalysis, cacheSize);
+            graphManipulation.addGraphChangeListener(cache);
+            graphProcessor.addDirectoryListener(cache::invalidate);
+            graphAnalysis = cache;
+        }
+
+        // La ingesta se ejecuta en segundo plano y se consulta en /graph/jobs
+        IngestionJobs ingestionJobs = new IngestionJobs(graphProcessor);
+        graphManipulation.addGraphChangeListener(ingestionJobs);
 
         // Crear y devolver el GraphController
-        return new GraphController(graphProcessor, graphAnalysis);
+        return new GraphController(graphProcessor, graphAnalysis, ingestionJobs);
+    }
+
+    // Vistas del grafo en memoria: se cargan de Neo4j y después las alimenta la ingesta.
+    // Una vista vacía respondería como si el grafo no tuviera palabras, así que sin carga no se arranca.
+    private static void loadGraphViews(String uri, String user, String password,
+                                       GraphManipulation graphManipulation, List<GraphChangeListener> graphViews) {
+        if (graphViews.isEmpty()) {
+            return;
+        }
+        try (Neo4jGraphLoader loader = new Neo4jGraphLoader(uri, user, password)) {
+            loader.load(graphViews.toArray(new GraphChangeListener[0]));
+            System.out.println("In-memory graph views loaded: " + graphViews.size());
+        } catch (GraphWordException e) {
+            throw new GraphWordException("In-memory graph views could not be loaded, startup aborted. "
+                    + e.getMessage(), e);
+        }
+        graphViews.forEach(graphManipulation::addGraphChangeListener);
+    }
+
+    // El snapshot se compara con los recuentos de Neo4j, que pudo recibir escrituras después de guardarlo
+    private static GraphSnapshotStore snapshotStore(String uri, String user, String password) {
+        String snapshotPath = ConfigLoader.get("analysis.snapshotPath");
+        if (snapshotPath == null || snapshotPath.isBlank()) {
+            return null;
+        }
+        return new GraphSnapshotStore(Path.of(snapshotPath.trim()), graphStamps(uri, user, password));
+    }
+
+    private static Supplier<GraphSnapshot.Stamp> graphStamps(String uri, String user, String password) {
+        return () -> {
+            try (Neo4jGraphLoader loader = new Neo4jGraphLoader(uri, user, password)) {
+                return loader.stamp();
+            }
+        };
+    }
+
+    private static CsrGraph loadSnapshot(GraphSnapshotStore snapshotStore) {
+        try {
+            long start = System.nanoTime();
+            CsrGraph snapshot = snapshotStore.load();
+            if (snapshot != null) {
+                System.out.println("Graph snapshot loaded in " + (System.nanoTime() - start) / 1_000_000 + " ms: "
+                        + snapshot.nodeCount() + " words, " + snapshot.edgeCount() + " edges");
+            }
+            return snapshot;
+        } catch (GraphWordException e) {
+            // Un snapshot ilegible se ignora y el grafo se carga desde Neo4j
+            System.err.println(e.getMessage());
+            return null;
+        }
+    }
+
+    private static void saveSnapshot(GraphSnapshotStore snapshotStore, InMemoryGraphAnalyzer analyzer) {
+        try {
+            snapshotStore.save(analyzer.graph());
+            System.out.println("Graph snapshot written to " + snapshotStore.getSnapshotPath());
+        } catch (GraphWordException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    private static String analysisEngine() {
+        String engine = ConfigLoader.get("analysis.engine");
+        if (engine == null || engine.isBlank()) {
+            return "neo4j";
+        }
+        engine = engine.trim().toLowerCase();
+        if (!engine.equals("neo4j") && !engine.equals("memory")) {
+            throw new GraphWordException("Unknown value for 'analysis.engine': " + engine);
+        }
+        return engine;
+    }
+
+    private static FileManifest fileManifest() {
+        String manifestPath = ConfigLoader.get("ingestion.manifestPath");
+        return manifestPath == null || manifestPath.isBlank() ? null : new FileManifest(Path.of(manifestPath.trim()));
+    }
+
+    private static LocalFileReader localFileReader() {
+        int thresholdMb = intSetting("reader.parallelThresholdMb",
+                (int) (LocalFileReader.DEFAULT_PARALLEL_THRESHOLD / (1024 * 1024)));
+        long threshold = thresholdMb > 0 ? thresholdMb * 1024L * 1024L : Long.MAX_VALUE;
+        return new LocalFileReader(threshold, LocalFileReader.DEFAULT_CHUNK_SIZE);
+    }
+
+    private static void bootstrapSchema(String uri, String user, String password) {
+        try (SchemaManager schemaManager = new SchemaManager(uri, user, password)) {
+            int awaitSeconds = intSetting("neo4j.schema.awaitSeconds", SchemaManager.DEFAULT_AWAIT_SECONDS);
+            for (String status : schemaManager.bootstrap(awaitSeconds)) {
+                System.out.println("Schema: " + status);
+            }
+        } catch (GraphWordException e) {
+            // Neo4j may not be reachable yet; the queries still work, only slower
+            System.err.println(e.getMessage());
+        }
+    }
+
+    private static int intSetting(String key, int defaultValue) {
+        String value = ConfigLoader.get(key);
+        return ValidationUtils.parseInt(value, defaultValue, "Configuration '" + key + "' must be an integer: " + value);
+    }
+
+    private static ProjectionManager.Freshness projectionFreshness() {
+        String freshness = ConfigLoader.get("graph.projection.freshness");
+        if (freshness == null || freshness.isBlank()) {
+            return ProjectionManager.Freshness.STRICT;
+        }
+        try {
+            return ProjectionManager.Freshness.valueOf(freshness.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new GraphWordException("Unknown value for 'graph.projection.freshness': " + freshness);
+        }
+    }
+
+    private static ConnectMode connectMode() {
+        String mode = ConfigLoader.get("graph.connect.mode");
+        if (mode == null || mode.isBlank()) {
+            return ConnectMode.NEIGHBOR_INDEX;
+        }
+        try {
+            return ConnectMode.valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new GraphWordException("Unknown value for 'graph.connect.mode': " + mode);
+        }
     }
 }
 
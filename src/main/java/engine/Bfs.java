@@ -0,0 +1,109 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Single-source breadth-first search on a {@link CsrGraph} with buffers reused across runs: visit
+ * marks are stamped with a per-run epoch, so a run only touches the nodes it reaches. Instances are
+ * not thread-safe.
+ */
+public class Bfs {
+
+    private final CsrGraph graph;
+    private final int[] mark;
+    private final int[] distance;
+    private final int[] queue;
+    private int epoch;
+    private int visitedCount;
+
+    public Bfs(CsrGraph graph) {
+        this.graph = graph;
+        this.mark = new int[graph.nodeCount()];
+        this.distance = new int[graph.nodeCount()];
+        this.queue = new int[graph.nodeCount()];
+    }
+
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Visits every node reachable from the source and returns its eccentricity, the largest distance found.
+     */
+    public int run(int source) {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            epoch = 0;
+        }
+        epoch++;
+
+        mark[source] = epoch;
+        distance[source] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int node = queue[head++];
+            int next = distance[node] + 1;
+            for (int i = graph.neighborStart(node); i < graph.neighborEnd(node); i++) {
+                int target = graph.target(i);
+                if (mark[target] != epoch) {
+                    mark[target] = epoch;
+                    distance[target] = next;
+                    queue[tail++] = target;
+                }
+            }
+        }
+        visitedCount = tail;
+        return distance[queue[tail - 1]];
+    }
+
+    /**
+     * Distance from the last source, or -1 when the node was not reached.
+     */
+    public int distance(int node) {
+        return mark[node] == epoch ? distance[node] : -1;
+    }
+
+    /**
+     * A node at the largest distance from the last source.
+     */
+    public int farthest() {
+        return queue[visitedCount - 1];
+    }
+
+    public int visitedCount() {
+        return visitedCount;
+    }
+
+    /**
+     * The i-th node reached by the last run; nodes come in order of distance.
+     */
+    public int visited(int i) {
+        return queue[i];
+    }
+
+    /**
+     * A shortest path from the last source to the node, walking back through neighbors one step closer
+     * to the source. Empty when the node was not reached.
+     */
+    public int[] pathTo(int node) {
+        int length = distance(node);
+        if (length < 0) {
+            return new int[0];
+        }
+        int[] path = new int[length + 1];
+        path[length] = node;
+        for (int step = length; step > 0; step--) {
+            int current = path[step];
+            for (int i = graph.neighborStart(current); i < graph.neighborEnd(current); i++) {
+                int previous = graph.target(i);
+                if (mark[previous] == epoch && distance[previous] == step - 1) {
+                    path[step - 1] = previous;
+                    break;
+                }
+            }
+        }
+        return path;
+    }
+}
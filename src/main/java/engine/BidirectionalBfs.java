@@ -0,0 +1,149 @@
+package engine;
+
+/**
+ * Unweighted shortest paths on a {@link CsrGraph}, searching from both endpoints at once and always
+ * expanding the frontier with fewer pending edges. Pairs in different components are rejected before
+ * any search. Visit marks are stamped with a per-query epoch, so the arrays are allocated once per
+ * instance and never cleared between queries. Instances are not thread-safe.
+ */
+public class BidirectionalBfs {
+
+    private static final int[] NO_PATH = new int[0];
+
+    private final CsrGraph graph;
+    private final Side forward;
+    private final Side backward;
+    private int epoch;
+
+    private static class Side {
+        final int[] mark;
+        final int[] distance;
+        final int[] parent;
+        final int[] queue;
+        int head;
+        int tail;
+        int depth;
+
+        Side(int nodeCount) {
+            mark = new int[nodeCount];
+            distance = new int[nodeCount];
+            parent = new int[nodeCount];
+            queue = new int[nodeCount];
+        }
+
+        void start(int node, int epoch) {
+            mark[node] = epoch;
+            distance[node] = 0;
+            parent[node] = -1;
+            head = 0;
+            tail = 0;
+            depth = 0;
+            queue[tail++] = node;
+        }
+
+        boolean visited(int node, int epoch) {
+            return mark[node] == epoch;
+        }
+    }
+
+    public BidirectionalBfs(CsrGraph graph) {
+        this.graph = graph;
+        this.forward = new Side(graph.nodeCount());
+        this.backward = new Side(graph.nodeCount());
+    }
+
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the node ids of a shortest path from source to target, both included, or an empty array
+     * when the target cannot be reached.
+     */
+    public int[] shortestPath(int source, int target) {
+        if (source == target) {
+            return new int[]{source};
+        }
+        if (!graph.connected(source, target)) {
+            return NO_PATH;
+        }
+
+        nextEpoch();
+        forward.start(source, epoch);
+        backward.start(target, epoch);
+
+        int meeting = -1;
+        while (meeting < 0 && forward.head < forward.tail && backward.head < backward.tail) {
+            Side expanded = pendingEdges(forward) <= pendingEdges(backward) ? forward : backward;
+            meeting = expandLevel(expanded, expanded == forward ? backward : forward);
+        }
+        return meeting < 0 ? NO_PATH : path(meeting);
+    }
+
+    /**
+     * Length in edges of a shortest path, or -1 when the target cannot be reached.
+     */
+    public int distance(int source, int target) {
+        return shortestPath(source, target).length - 1;
+    }
+
+    // Expands every node of the side's current level and returns the meeting node on the shortest
+    // connection found, or -1 when the frontiers did not touch.
+    private int expandLevel(Side side, Side other) {
+        int levelEnd = side.tail;
+        int best = -1;
+        int bestLength = Integer.MAX_VALUE;
+        while (side.head < levelEnd) {
+            int node = side.queue[side.head++];
+            for (int i = graph.neighborStart(node); i < graph.neighborEnd(node); i++) {
+                int next = graph.target(i);
+                if (!side.visited(next, epoch)) {
+                    side.mark[next] = epoch;
+                    side.distance[next] = side.depth + 1;
+                    side.parent[next] = node;
+                    side.queue[side.tail++] = next;
+                }
+                if (other.visited(next, epoch)) {
+                    int length = side.distance[next] + other.distance[next];
+                    if (length < bestLength) {
+                        best = next;
+                        bestLength = length;
+                    }
+                }
+            }
+        }
+        side.depth++;
+        return best;
+    }
+
+    private int pendingEdges(Side side) {
+        long edges = 0;
+        for (int i = side.head; i < side.tail; i++) {
+            edges += graph.degree(side.queue[i]);
+        }
+        return (int) Math.min(edges, Integer.MAX_VALUE);
+    }
+
+    private int[] path(int meeting) {
+        int[] path = new int[forward.distance[meeting] + backward.distance[meeting] + 1];
+        int position = forward.distance[meeting];
+        for (int node = meeting; node >= 0; node = forward.parent[node]) {
+            path[position--] = node;
+        }
+        position = forward.distance[meeting] + 1;
+        for (int node = backward.parent[meeting]; node >= 0; node = backward.parent[node]) {
+            path[position++] = node;
+        }
+        return path;
+    }
+
+    // Marks from previous queries stay in the arrays; they only have to be wiped when the epoch wraps
+    private void nextEpoch() {
+        if (epoch == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(forward.mark, 0);
+            java.util.Arrays.fill(backward.mark, 0);
+            epoch = 0;
+        }
+        epoch++;
+    }
+}
@@ -0,0 +1,43 @@
+package engine;
+
+/**
+ * Labels every node of a {@link CsrGraph} with the id of its connected component.
+ */
+public final class ConnectedComponents {
+
+    private ConnectedComponents() {
+    }
+
+    /**
+     * Returns an array with the component of each node; components are numbered from 0 in order of
+     * their lowest node id.
+     */
+    public static int[] label(CsrGraph graph) {
+        int n = graph.nodeCount();
+        int[] components = new int[n];
+        java.util.Arrays.fill(components, -1);
+        int[] queue = new int[n];
+        int count = 0;
+        for (int start = 0; start < n; start++) {
+            if (components[start] >= 0) {
+                continue;
+            }
+            components[start] = count;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            while (head < tail) {
+                int node = queue[head++];
+                for (int i = graph.neighborStart(node); i < graph.neighborEnd(node); i++) {
+                    int next = graph.target(i);
+                    if (components[next] < 0) {
+                        components[next] = count;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            count++;
+        }
+        return components;
+    }
+}
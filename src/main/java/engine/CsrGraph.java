@@ -0,0 +1,217 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Immutable undirected graph in compressed sparse row form: the neighbors of node {@code v} are
+ * {@code targets[offsets[v]] .. targets[offsets[v + 1] - 1]}, sorted and without duplicates.
+ * Nodes are the ids of a {@link WordDictionary}. The arrays are read through {@link IntView}s, so a graph
+ * read from a {@link GraphSnapshot} is served from the mapped file.
+ */
+public class CsrGraph {
+
+    private final WordDictionary dictionary;
+    private final int nodeCount;
+    private final IntView offsets;
+    private final IntView targets;
+    private volatile IntView components;
+
+    CsrGraph(WordDictionary dictionary, int nodeCount, int[] offsets, int[] targets) {
+        this(dictionary, nodeCount, IntView.of(offsets), IntView.of(targets), null);
+    }
+
+    CsrGraph(WordDictionary dictionary, int nodeCount, IntView offsets, IntView targets, IntView components) {
+        this.dictionary = dictionary;
+        this.nodeCount = nodeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.components = components;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Number of undirected edges.
+     */
+    public long edgeCount() {
+        return targets.length() / 2;
+    }
+
+    public int degree(int node) {
+        return offsets.get(node + 1) - offsets.get(node);
+    }
+
+    /**
+     * Index in the target array of the first neighbor of the node.
+     */
+    public int neighborStart(int node) {
+        return offsets.get(node);
+    }
+
+    /**
+     * Index in the target array just after the last neighbor of the node.
+     */
+    public int neighborEnd(int node) {
+        return offsets.get(node + 1);
+    }
+
+    public int target(int index) {
+        return targets.get(index);
+    }
+
+    public boolean hasEdge(int source, int target) {
+        return targets.binarySearch(offsets.get(source), offsets.get(source + 1), target) >= 0;
+    }
+
+    /**
+     * Returns true when both nodes belong to the same connected component. Components are labeled on
+     * the first call.
+     */
+    public boolean connected(int source, int target) {
+        IntView labels = components();
+        return labels.get(source) == labels.get(target);
+    }
+
+    /**
+     * Component id of the node, as computed by {@link ConnectedComponents#label}. Components are labeled
+     * on the first call.
+     */
+    public int componentOf(int node) {
+        return components().get(node);
+    }
+
+    private IntView components() {
+        IntView labels = components;
+        if (labels == null) {
+            labels = IntView.of(ConnectedComponents.label(this));
+            components = labels;
+        }
+        return labels;
+    }
+
+    /**
+     * Returns the id of the word, or -1 if it is not a node of this graph.
+     */
+    public int idOf(String word) {
+        int id = dictionary.idOf(word);
+        return id < nodeCount ? id : -1;
+    }
+
+    public String wordOf(int node) {
+        return dictionary.wordOf(node);
+    }
+
+    WordDictionary dictionary() {
+        return dictionary;
+    }
+
+    IntView offsets() {
+        return offsets;
+    }
+
+    IntView targets() {
+        return targets;
+    }
+
+    IntView componentLabels() {
+        return components();
+    }
+
+    public static Builder builder() {
+        return new Builder(new WordDictionary());
+    }
+
+    /**
+     * Returns a builder that already holds every node and edge of the given graph.
+     */
+    public static Builder builder(CsrGraph graph) {
+        Builder builder = new Builder(new WordDictionary(graph.dictionary));
+        for (int node = 0; node < graph.nodeCount; node++) {
+            for (int i = graph.neighborStart(node); i < graph.neighborEnd(node); i++) {
+                if (node < graph.target(i)) {
+                    builder.addEdge(node, graph.target(i));
+                }
+            }
+        }
+        return builder;
+    }
+
+    public static class Builder {
+        private final WordDictionary dictionary;
+        private int[] sources = new int[1024];
+        private int[] destinations = new int[1024];
+        private int edgeCount;
+
+        private Builder(WordDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        public int addWord(String word) {
+            return dictionary.add(word);
+        }
+
+        public Builder addEdge(String source, String target) {
+            return addEdge(dictionary.add(source), dictionary.add(target));
+        }
+
+        /**
+         * Adds an undirected edge between two ids of this builder. Self-loops and duplicates are dropped
+         * when the graph is built.
+         */
+        public Builder addEdge(int source, int target) {
+            if (source < 0 || target < 0 || source >= dictionary.size() || target >= dictionary.size()) {
+                throw new IllegalArgumentException("Unknown node id in edge " + source + " - " + target);
+            }
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                destinations = Arrays.copyOf(destinations, edgeCount * 2);
+            }
+            sources[edgeCount] = source;
+            destinations[edgeCount] = target;
+            edgeCount++;
+            return this;
+        }
+
+        public CsrGraph build() {
+            int nodeCount = dictionary.size();
+            int[] offsets = new int[nodeCount + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                if (sources[i] != destinations[i]) {
+                    offsets[sources[i] + 1]++;
+                    offsets[destinations[i] + 1]++;
+                }
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+
+            int[] targets = new int[offsets[nodeCount]];
+            int[] next = Arrays.copyOf(offsets, nodeCount);
+            for (int i = 0; i < edgeCount; i++) {
+                if (sources[i] != destinations[i]) {
+                    targets[next[sources[i]]++] = destinations[i];
+                    targets[next[destinations[i]]++] = sources[i];
+                }
+            }
+
+            // Sort every adjacency list and squeeze out duplicated edges
+            int[] compactOffsets = new int[nodeCount + 1];
+            int size = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                Arrays.sort(targets, offsets[node], offsets[node + 1]);
+                int previous = -1;
+                for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                    if (targets[i] != previous) {
+                        previous = targets[i];
+                        targets[size++] = previous;
+                    }
+                }
+                compactOffsets[node + 1] = size;
+            }
+
+            return new CsrGraph(dictionary, nodeCount, compactOffsets, Arrays.copyOf(targets, size));
+        }
+    }
+}
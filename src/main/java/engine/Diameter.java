@@ -0,0 +1,29 @@
+package engine;
+
+/**
+ * Longest shortest path of a graph and one pair of nodes at that distance.
+ */
+public class Diameter {
+
+    private final int distance;
+    private final int source;
+    private final int target;
+
+    public Diameter(int distance, int source, int target) {
+        this.distance = distance;
+        this.source = source;
+        this.target = target;
+    }
+
+    public int getDistance() {
+        return distance;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+}
@@ -0,0 +1,46 @@
+package engine;
+
+/**
+ * Interval known to contain the diameter of a graph, with a pair of nodes realizing the lower bound
+ * and the number of BFS runs spent on it.
+ */
+public class DiameterBounds {
+
+    private final int lowerBound;
+    private final int upperBound;
+    private final int source;
+    private final int target;
+    private final long sourcesUsed;
+
+    public DiameterBounds(int lowerBound, int upperBound, int source, int target, long sourcesUsed) {
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.source = source;
+        this.target = target;
+        this.sourcesUsed = sourcesUsed;
+    }
+
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    public int getUpperBound() {
+        return upperBound;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public long getSourcesUsed() {
+        return sourcesUsed;
+    }
+
+    public boolean isExact() {
+        return lowerBound == upperBound;
+    }
+}
@@ -0,0 +1,195 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Diameter of a {@link CsrGraph} with the iFUB algorithm (Crescenzi et al.), run on each connected
+ * component. A double sweep gives a lower bound and a central root; the nodes farthest from the root
+ * are then checked level by level, in parallel, until the lower bound meets the upper bound
+ * {@code 2 * (level - 1)}. On sparse graphs this takes a handful of BFS runs per component instead of
+ * one per node. Stopping early under a time budget leaves both bounds valid, which is what
+ * {@link #estimate(long)} reports.
+ */
+public class DiameterEngine {
+
+    private final CsrGraph graph;
+    private final ThreadLocal<Bfs> searches;
+    private long bfsCount;
+
+    private static class ComponentBounds {
+        Diameter lower;
+        int upper;
+    }
+
+    public DiameterEngine(CsrGraph graph) {
+        this.graph = graph;
+        this.searches = ThreadLocal.withInitial(() -> new Bfs(graph));
+    }
+
+    /**
+     * Returns the largest diameter over all components, or {@code null} when the graph has no nodes.
+     */
+    public Diameter compute() {
+        DiameterBounds bounds = estimate(0);
+        return bounds == null ? null : new Diameter(bounds.getLowerBound(), bounds.getSource(), bounds.getTarget());
+    }
+
+    /**
+     * Bounds the diameter within roughly {@code budgetMillis}; 0 or less runs to the exact value. The
+     * double sweep of the largest component always runs, so the budget may be exceeded by a few BFS
+     * runs. Returns {@code null} when the graph has no nodes.
+     */
+    public DiameterBounds estimate(long budgetMillis) {
+        if (graph.nodeCount() == 0) {
+            return null;
+        }
+        long deadline = budgetMillis > 0 ? System.nanoTime() + budgetMillis * 1_000_000 : Long.MAX_VALUE;
+        long runsBefore = getBfsCount();
+
+        // Largest components first: a component of n nodes cannot have a diameter above n - 1
+        List<int[]> components = components();
+        components.sort(Comparator.comparingInt((int[] members) -> members.length).reversed());
+        Diameter best = new Diameter(0, components.get(0)[0], components.get(0)[0]);
+        int upper = 0;
+        for (int[] members : components) {
+            if (members.length - 1 <= best.getDistance()) {
+                break;
+            }
+            if (getBfsCount() > runsBefore && expired(deadline)) {
+                // Every component left is at most this large
+                upper = Math.max(upper, members.length - 1);
+                break;
+            }
+            ComponentBounds bounds = componentBounds(members, deadline);
+            if (bounds.lower.getDistance() > best.getDistance()) {
+                best = bounds.lower;
+            }
+            upper = Math.max(upper, bounds.upper);
+        }
+        return new DiameterBounds(best.getDistance(), Math.max(upper, best.getDistance()),
+                best.getSource(), best.getTarget(), getBfsCount() - runsBefore);
+    }
+
+    /**
+     * Number of BFS runs made by this engine so far.
+     */
+    public synchronized long getBfsCount() {
+        return bfsCount;
+    }
+
+    private ComponentBounds componentBounds(int[] members, long deadline) {
+        Bfs bfs = searches.get();
+        ComponentBounds bounds = new ComponentBounds();
+
+        // Double sweep from the highest-degree node: a -> b gives the initial lower bound
+        int start = members[0];
+        for (int node : members) {
+            if (graph.degree(node) > graph.degree(start)) {
+                start = node;
+            }
+        }
+        bfs.run(start);
+        int a = bfs.farthest();
+        int lowerBound = bfs.run(a);
+        int b = bfs.farthest();
+        bounds.lower = new Diameter(lowerBound, a, b);
+
+        // Root at the middle of the a-b path, walking back from b towards a
+        int root = b;
+        while (bfs.distance(root) > lowerBound / 2) {
+            for (int i = graph.neighborStart(root); i < graph.neighborEnd(root); i++) {
+                if (bfs.distance(graph.target(i)) == bfs.distance(root) - 1) {
+                    root = graph.target(i);
+                    break;
+                }
+            }
+        }
+        int level = bfs.run(root);
+        countBfs(3);
+        if (level > bounds.lower.getDistance()) {
+            bounds.lower = new Diameter(level, root, bfs.farthest());
+        }
+        // Any two nodes are within level of the root, hence within 2 * level of each other
+        bounds.upper = Math.min(members.length - 1, 2 * level);
+
+        int[][] fringes = levels(bfs, level);
+        while (bounds.upper > bounds.lower.getDistance() && !expired(deadline)) {
+            int[] fringe = fringes[level];
+            List<Diameter> eccentricities = IntStream.of(fringe).parallel()
+                    .mapToObj(node -> expired(deadline) ? null : eccentricity(node))
+                    .toList();
+            countBfs(eccentricities.stream().filter(Objects::nonNull).count());
+            for (Diameter eccentricity : eccentricities) {
+                if (eccentricity != null && eccentricity.getDistance() > bounds.lower.getDistance()) {
+                    bounds.lower = eccentricity;
+                }
+            }
+            if (eccentricities.contains(null)) {
+                break;
+            }
+            // Every pair left has both ends within level - 1 of the root
+            bounds.upper = Math.min(bounds.upper, Math.max(bounds.lower.getDistance(), 2 * (level - 1)));
+            level--;
+        }
+        return bounds;
+    }
+
+    private Diameter eccentricity(int node) {
+        Bfs search = searches.get();
+        int eccentricity = search.run(node);
+        return new Diameter(eccentricity, node, search.farthest());
+    }
+
+    private static boolean expired(long deadline) {
+        return deadline != Long.MAX_VALUE && System.nanoTime() > deadline;
+    }
+
+    // Nodes of the last BFS grouped by their distance from its source
+    private static int[][] levels(Bfs bfs, int eccentricity) {
+        int[] sizes = new int[eccentricity + 1];
+        for (int i = 0; i < bfs.visitedCount(); i++) {
+            sizes[bfs.distance(bfs.visited(i))]++;
+        }
+        int[][] levels = new int[eccentricity + 1][];
+        for (int level = 0; level <= eccentricity; level++) {
+            levels[level] = new int[sizes[level]];
+        }
+        Arrays.fill(sizes, 0);
+        for (int i = 0; i < bfs.visitedCount(); i++) {
+            int node = bfs.visited(i);
+            int level = bfs.distance(node);
+            levels[level][sizes[level]++] = node;
+        }
+        return levels;
+    }
+
+    private List<int[]> components() {
+        int count = 0;
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            count = Math.max(count, graph.componentOf(node) + 1);
+        }
+        int[] sizes = new int[count];
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            sizes[graph.componentOf(node)]++;
+        }
+        List<int[]> components = new ArrayList<>(count);
+        for (int size : sizes) {
+            components.add(new int[size]);
+        }
+        Arrays.fill(sizes, 0);
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            int label = graph.componentOf(node);
+            components.get(label)[sizes[label]++] = node;
+        }
+        return components;
+    }
+
+    private synchronized void countBfs(long runs) {
+        bfsCount += runs;
+    }
+}
@@ -0,0 +1,223 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Versioned binary image of a {@link CsrGraph}, written and read through memory mappings. The file is
+ * a 64-byte little-endian header followed by the dictionary (word bytes, word offsets, hashes and its
+ * lookup table), the CSR offsets and targets and, when flagged, the component label of every node:
+ *
+ * <pre>
+ * magic "GWSNAPSH" | format version | flags | node count | dictionary size | arena bytes
+ *   | table length | target count | padding to 40 bytes | [stamp words | stamp edges] | padding to 64 bytes
+ * arena (padded to 4 bytes) | starts | hashes | table | offsets | targets | [components]
+ * </pre>
+ *
+ * Reading maps every section read-only and the graph and its dictionary look them up in place, so loading
+ * a snapshot involves no parsing, hashing, sorting or copying, and processes that read the same file share
+ * it through the page cache. Snapshots are replaced by an atomic move, never rewritten in place, so a
+ * graph mapped from an older file stays valid. The optional
+ * {@link Stamp} records the size of the store the graph was taken from, so a reader can tell whether
+ * that store changed after the snapshot was written.
+ */
+public final class GraphSnapshot {
+
+    public static final int FORMAT_VERSION = 2;
+
+    private static final long MAGIC = 0x485350414E535747L; // "GWSNAPSH" in file byte order
+    private static final int HEADER_BYTES = 64;
+    private static final int FLAG_COMPONENTS = 1;
+    private static final int FLAG_STAMP = 2;
+    private static final int STAMP_OFFSET = 40;
+    // Sections larger than this are mapped in several windows
+    private static final int MAX_WINDOW_INTS = MappedIntView.WINDOW_INTS;
+
+    /**
+     * Word and edge counts of the store a snapshot was taken from.
+     */
+    public static final class Stamp {
+
+        private final long wordCount;
+        private final long edgeCount;
+
+        public Stamp(long wordCount, long edgeCount) {
+            this.wordCount = wordCount;
+            this.edgeCount = edgeCount;
+        }
+
+        public long getWordCount() {
+            return wordCount;
+        }
+
+        public long getEdgeCount() {
+            return edgeCount;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Stamp stamp && stamp.wordCount == wordCount && stamp.edgeCount == edgeCount;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(wordCount) * 31 + Long.hashCode(edgeCount);
+        }
+
+        @Override
+        public String toString() {
+            return wordCount + " words, " + edgeCount + " edges";
+        }
+    }
+
+    private GraphSnapshot() {
+    }
+
+    public static void write(CsrGraph graph, Path path) throws IOException {
+        write(graph, null, path);
+    }
+
+    /**
+     * Writes the graph and, when not null, the stamp of its source to a temporary file next to the path
+     * and moves it into place, so readers never see a partial snapshot.
+     */
+    public static void write(CsrGraph graph, Stamp stamp, Path path) throws IOException {
+        WordDictionary dictionary = graph.dictionary();
+        ByteBuffer arena = dictionary.arena();
+        int arenaBytes = arena.remaining();
+        int dictionarySize = dictionary.size();
+        IntView table = dictionary.table();
+        IntView targets = graph.targets();
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putInt(FLAG_COMPONENTS | (stamp != null ? FLAG_STAMP : 0))
+                    .putInt(graph.nodeCount())
+                    .putInt(dictionarySize)
+                    .putInt(arenaBytes)
+                    .putInt(table.length())
+                    .putInt(targets.length());
+            if (stamp != null) {
+                header.putLong(STAMP_OFFSET, stamp.getWordCount()).putLong(STAMP_OFFSET + 8, stamp.getEdgeCount());
+            }
+            header.clear();
+            channel.write(header, 0);
+
+            long position = HEADER_BYTES;
+            if (arenaBytes > 0) {
+                channel.map(FileChannel.MapMode.READ_WRITE, position, arenaBytes).put(arena);
+            }
+            position += padded(arenaBytes);
+            position = putInts(channel, position, dictionary.starts(), dictionarySize + 1);
+            position = putInts(channel, position, dictionary.hashes(), dictionarySize);
+            position = putInts(channel, position, table, table.length());
+            position = putInts(channel, position, graph.offsets(), graph.nodeCount() + 1);
+            position = putInts(channel, position, targets, targets.length());
+            putInts(channel, position, graph.componentLabels(), graph.nodeCount());
+            channel.force(false);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads only the header and returns the stamp written with the graph, or {@code null} if it has none.
+     */
+    public static Stamp readStamp(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer header = header(channel, path);
+            if ((header.getInt() & FLAG_STAMP) == 0) {
+                return null;
+            }
+            return new Stamp(header.getLong(STAMP_OFFSET), header.getLong(STAMP_OFFSET + 8));
+        }
+    }
+
+    public static CsrGraph read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer header = header(channel, path);
+            int flags = header.getInt();
+            int nodeCount = header.getInt();
+            int dictionarySize = header.getInt();
+            int arenaBytes = header.getInt();
+            int tableLength = header.getInt();
+            int targetCount = header.getInt();
+            boolean hasComponents = (flags & FLAG_COMPONENTS) != 0;
+
+            long expected = HEADER_BYTES + padded(arenaBytes)
+                    + 4L * (dictionarySize + 1L + dictionarySize + tableLength + nodeCount + 1L + targetCount)
+                    + (hasComponents ? 4L * nodeCount : 0);
+            if (nodeCount < 0 || nodeCount > dictionarySize || Integer.bitCount(tableLength) != 1
+                    || channel.size() != expected) {
+                throw new IOException("Corrupted graph snapshot: " + path);
+            }
+
+            ByteBuffer arena = arenaBytes > 0
+                    ? channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, arenaBytes)
+                    : ByteBuffer.allocate(0);
+            long position = HEADER_BYTES + padded(arenaBytes);
+            IntView starts = new MappedIntView(channel, position, dictionarySize + 1);
+            position += 4L * (dictionarySize + 1);
+            IntView hashes = new MappedIntView(channel, position, dictionarySize);
+            position += 4L * dictionarySize;
+            IntView table = new MappedIntView(channel, position, tableLength);
+            position += 4L * tableLength;
+            IntView offsets = new MappedIntView(channel, position, nodeCount + 1);
+            position += 4L * (nodeCount + 1);
+            IntView targets = new MappedIntView(channel, position, targetCount);
+            position += 4L * targetCount;
+            IntView components = hasComponents ? new MappedIntView(channel, position, nodeCount) : null;
+            if (offsets.get(nodeCount) != targetCount || starts.get(dictionarySize) != arenaBytes) {
+                throw new IOException("Corrupted graph snapshot: " + path);
+            }
+
+            WordDictionary dictionary = new WordDictionary(arena, starts, hashes, table);
+            return new CsrGraph(dictionary, nodeCount, offsets, targets, components);
+        }
+    }
+
+    // Checks the magic and the version, and returns the header positioned at the flags
+    private static MappedByteBuffer header(FileChannel channel, Path path) throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            throw new IOException("Not a graph snapshot: " + path);
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getLong() != MAGIC) {
+            throw new IOException("Not a graph snapshot: " + path);
+        }
+        int version = header.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported graph snapshot version " + version + ": " + path);
+        }
+        return header;
+    }
+
+    private static long putInts(FileChannel channel, long position, IntView values, int count) throws IOException {
+        for (int from = 0; from < count; from += MAX_WINDOW_INTS) {
+            int windowCount = Math.min(MAX_WINDOW_INTS, count - from);
+            IntBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, position, 4L * windowCount)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            for (int i = 0; i < windowCount; i++) {
+                window.put(i, values.get(from + i));
+            }
+            position += 4L * windowCount;
+        }
+        return position;
+    }
+
+    private static long padded(int bytes) {
+        return (bytes + 3L) & ~3L;
+    }
+}
@@ -0,0 +1,27 @@
+package engine;
+
+import java.util.Arrays;
+
+final class HeapIntView implements IntView {
+
+    private final int[] values;
+
+    HeapIntView(int[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public int get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public int length() {
+        return values.length;
+    }
+
+    @Override
+    public int binarySearch(int from, int to, int value) {
+        return Arrays.binarySearch(values, from, to, value);
+    }
+}
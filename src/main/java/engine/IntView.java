@@ -0,0 +1,38 @@
+package engine;
+
+/**
+ * Read-only sequence of ints that a {@link CsrGraph} or {@link WordDictionary} reads its sections
+ * through. Graphs built in the process are backed by heap arrays; graphs read from a
+ * {@link GraphSnapshot} are backed by the mapped file, so they share the page cache instead of being
+ * copied.
+ */
+interface IntView {
+
+    int get(int index);
+
+    int length();
+
+    static IntView of(int[] values) {
+        return new HeapIntView(values);
+    }
+
+    /**
+     * Index of the value in the sorted range {@code [from, to)}, or a negative number if it is absent.
+     */
+    default int binarySearch(int from, int to, int value) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int current = get(middle);
+            if (current < value) {
+                low = middle + 1;
+            } else if (current > value) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,152 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The k shortest simple paths between two nodes of a {@link CsrGraph}, with Yen's algorithm: each new
+ * path is the shortest deviation from a prefix of a path already found, avoiding the prefix nodes and
+ * the edges the known paths take next. Every deviation is one bounded BFS, so a query costs at most
+ * {@code k * maxLength} searches. Buffers are reused across queries; instances are not thread-safe.
+ */
+public class KShortestPaths {
+
+    private final CsrGraph graph;
+    private final int[] mark;
+    private final int[] parent;
+    private final int[] depth;
+    private final int[] queue;
+    private int epoch;
+
+    public KShortestPaths(CsrGraph graph) {
+        this.graph = graph;
+        this.mark = new int[graph.nodeCount()];
+        this.parent = new int[graph.nodeCount()];
+        this.depth = new int[graph.nodeCount()];
+        this.queue = new int[graph.nodeCount()];
+    }
+
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns up to {@code k} simple paths from source to target with at most {@code maxLength} edges,
+     * shortest first. Paths are arrays of node ids including both ends.
+     */
+    public List<int[]> find(int source, int target, int k, int maxLength) {
+        List<int[]> paths = new ArrayList<>();
+        if (k <= 0 || !graph.connected(source, target)) {
+            return paths;
+        }
+        int[] first = search(source, target, new int[0], 0, new int[0], maxLength);
+        if (first == null) {
+            return paths;
+        }
+        paths.add(first);
+
+        PriorityQueue<int[]> candidates = new PriorityQueue<>(KShortestPaths::compare);
+        Set<List<Integer>> seen = new HashSet<>();
+        seen.add(asList(first));
+        while (paths.size() < k) {
+            int[] previous = paths.get(paths.size() - 1);
+            for (int i = 0; i < previous.length - 1 && i < maxLength; i++) {
+                int[] blockedNext = blockedNext(paths, previous, i);
+                int[] spur = search(previous[i], target, previous, i, blockedNext, maxLength - i);
+                if (spur != null) {
+                    int[] candidate = Arrays.copyOf(previous, i + spur.length);
+                    System.arraycopy(spur, 0, candidate, i, spur.length);
+                    if (seen.add(asList(candidate))) {
+                        candidates.add(candidate);
+                    }
+                }
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+            paths.add(candidates.poll());
+        }
+        return paths;
+    }
+
+    // Next nodes taken after prefix[0..i] by the paths already found that share that prefix
+    private static int[] blockedNext(List<int[]> paths, int[] prefix, int i) {
+        int[] blocked = new int[paths.size()];
+        int count = 0;
+        for (int[] path : paths) {
+            if (path.length > i + 1 && Arrays.equals(path, 0, i + 1, prefix, 0, i + 1)) {
+                blocked[count++] = path[i + 1];
+            }
+        }
+        return Arrays.copyOf(blocked, count);
+    }
+
+    // BFS from the spur node that avoids prefix[0..spurIndex - 1], skips the blocked first steps and
+    // gives up beyond maxLength edges.
+    private int[] search(int spur, int target, int[] prefix, int spurIndex, int[] blockedNext, int maxLength) {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            epoch = 0;
+        }
+        epoch++;
+        for (int i = 0; i < spurIndex; i++) {
+            mark[prefix[i]] = epoch;
+        }
+
+        mark[spur] = epoch;
+        parent[spur] = -1;
+        depth[spur] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = spur;
+        while (head < tail) {
+            int node = queue[head++];
+            if (node == target) {
+                int[] path = new int[depth[node] + 1];
+                for (int step = node; step >= 0; step = parent[step]) {
+                    path[depth[step]] = step;
+                }
+                return path;
+            }
+            if (depth[node] == maxLength) {
+                continue;
+            }
+            for (int i = graph.neighborStart(node); i < graph.neighborEnd(node); i++) {
+                int next = graph.target(i);
+                if (mark[next] != epoch && !(node == spur && contains(blockedNext, next))) {
+                    mark[next] = epoch;
+                    parent[next] = node;
+                    depth[next] = depth[node] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Shorter paths first, ties broken by node ids so results are deterministic
+    private static int compare(int[] a, int[] b) {
+        return a.length != b.length ? Integer.compare(a.length, b.length) : Arrays.compare(a, b);
+    }
+
+    private static List<Integer> asList(int[] path) {
+        List<Integer> list = new ArrayList<>(path.length);
+        for (int node : path) {
+            list.add(node);
+        }
+        return list;
+    }
+}
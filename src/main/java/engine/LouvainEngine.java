@@ -0,0 +1,316 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Community detection on a {@link CsrGraph} with the Louvain method: nodes greedily move to the
+ * neighboring community with the best modularity gain, then every community is collapsed into one
+ * weighted node and the process repeats on the smaller graph. Moves are evaluated in parallel one
+ * color class at a time (a greedy coloring, so no two nodes evaluated together are adjacent), which
+ * keeps the result close to the sequential algorithm and deterministic.
+ */
+public class LouvainEngine {
+
+    private static final int MAX_LEVELS = 20;
+    private static final int MAX_ROUNDS = 50;
+    private static final double MIN_GAIN = 1e-7;
+
+    private final CsrGraph graph;
+
+    public static class Result {
+        private final int[] communities;
+        private final int communityCount;
+        private final double modularity;
+
+        Result(int[] communities, int communityCount, double modularity) {
+            this.communities = communities;
+            this.communityCount = communityCount;
+            this.modularity = modularity;
+        }
+
+        /**
+         * Community of every node, numbered from 0 in order of their lowest node id.
+         */
+        public int[] getCommunities() {
+            return communities;
+        }
+
+        public int getCommunityCount() {
+            return communityCount;
+        }
+
+        public double getModularity() {
+            return modularity;
+        }
+    }
+
+    // Weighted undirected graph of one Louvain level; self-loops hold the weight inside a collapsed community
+    private static class Level {
+        final int nodeCount;
+        final int[] offsets;
+        final int[] targets;
+        final double[] weights;
+        final double[] selfLoops;
+        final double[] degrees;
+        final double totalDegree;
+
+        Level(int nodeCount, int[] offsets, int[] targets, double[] weights, double[] selfLoops) {
+            this.nodeCount = nodeCount;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.selfLoops = selfLoops;
+            this.degrees = new double[nodeCount];
+            double total = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                double degree = 2 * selfLoops[node];
+                for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                    degree += weights[i];
+                }
+                degrees[node] = degree;
+                total += degree;
+            }
+            this.totalDegree = total;
+        }
+    }
+
+    public LouvainEngine(CsrGraph graph) {
+        this.graph = graph;
+    }
+
+    public Result run() {
+        int n = graph.nodeCount();
+        Level level = baseLevel(graph);
+
+        // membership[v] is the node of the current level that contains original node v
+        int[] membership = IntStream.range(0, n).toArray();
+        for (int depth = 0; depth < MAX_LEVELS && level.totalDegree > 0; depth++) {
+            int[] communities = moveNodes(level);
+            int count = renumber(communities);
+            if (count == level.nodeCount) {
+                break;
+            }
+            for (int v = 0; v < n; v++) {
+                membership[v] = communities[membership[v]];
+            }
+            level = collapse(level, communities, count);
+        }
+
+        int communityCount = renumber(membership);
+        return new Result(membership, communityCount, modularity(graph, membership));
+    }
+
+    // Local moving phase; returns the community of every node of the level
+    private static int[] moveNodes(Level level) {
+        int n = level.nodeCount;
+        int[] community = IntStream.range(0, n).toArray();
+        double[] totals = level.degrees.clone();
+        int[][] colorClasses = colorClasses(level);
+        ThreadLocal<double[]> linkWeights = ThreadLocal.withInitial(() -> new double[n]);
+        ThreadLocal<int[]> touched = ThreadLocal.withInitial(() -> new int[n]);
+
+        double quality = modularity(level, community);
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            boolean moved = false;
+            for (int[] colorClass : colorClasses) {
+                int[] best = IntStream.of(colorClass).parallel()
+                        .map(node -> bestCommunity(level, node, community, totals, linkWeights.get(), touched.get()))
+                        .toArray();
+                for (int i = 0; i < colorClass.length; i++) {
+                    int node = colorClass[i];
+                    if (best[i] != community[node]) {
+                        totals[community[node]] -= level.degrees[node];
+                        totals[best[i]] += level.degrees[node];
+                        community[node] = best[i];
+                        moved = true;
+                    }
+                }
+            }
+            double next = modularity(level, community);
+            if (!moved || next - quality < MIN_GAIN) {
+                break;
+            }
+            quality = next;
+        }
+        return community;
+    }
+
+    private static int bestCommunity(Level level, int node, int[] community, double[] totals,
+                                     double[] linkWeights, int[] touched) {
+        int own = community[node];
+        int touchedCount = 0;
+        for (int i = level.offsets[node]; i < level.offsets[node + 1]; i++) {
+            int c = community[level.targets[i]];
+            if (linkWeights[c] == 0) {
+                touched[touchedCount++] = c;
+            }
+            linkWeights[c] += level.weights[i];
+        }
+
+        double degree = level.degrees[node];
+        double scale = degree / level.totalDegree;
+        int best = own;
+        double bestGain = linkWeights[own] - (totals[own] - degree) * scale;
+        for (int j = 0; j < touchedCount; j++) {
+            int c = touched[j];
+            if (c != own) {
+                double gain = linkWeights[c] - totals[c] * scale;
+                if (gain > bestGain + 1e-12 || (Math.abs(gain - bestGain) <= 1e-12 && best != own && c < best)) {
+                    best = c;
+                    bestGain = gain;
+                }
+            }
+            linkWeights[c] = 0;
+        }
+        linkWeights[own] = 0;
+        return best;
+    }
+
+    // Greedy coloring: adjacent nodes never share a class
+    private static int[][] colorClasses(Level level) {
+        int n = level.nodeCount;
+        int[] color = new int[n];
+        int[] usedBy = new int[n + 1];
+        Arrays.fill(usedBy, -1);
+        int colors = 0;
+        for (int node = 0; node < n; node++) {
+            for (int i = level.offsets[node]; i < level.offsets[node + 1]; i++) {
+                int neighbor = level.targets[i];
+                if (neighbor < node) {
+                    usedBy[color[neighbor]] = node;
+                }
+            }
+            int c = 0;
+            while (usedBy[c] == node) {
+                c++;
+            }
+            color[node] = c;
+            colors = Math.max(colors, c + 1);
+        }
+
+        int[] sizes = new int[colors];
+        for (int c : color) {
+            sizes[c]++;
+        }
+        int[][] classes = new int[colors][];
+        for (int c = 0; c < colors; c++) {
+            classes[c] = new int[sizes[c]];
+        }
+        Arrays.fill(sizes, 0);
+        for (int node = 0; node < n; node++) {
+            classes[color[node]][sizes[color[node]]++] = node;
+        }
+        return classes;
+    }
+
+    // Renumbers the values densely from 0 in order of first appearance and returns how many there are
+    private static int renumber(int[] values) {
+        int[] mapping = new int[values.length];
+        Arrays.fill(mapping, -1);
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (mapping[values[i]] < 0) {
+                mapping[values[i]] = count++;
+            }
+            values[i] = mapping[values[i]];
+        }
+        return count;
+    }
+
+    // One node per community; edges between communities are merged and summed, edges inside become self-loops
+    private static Level collapse(Level level, int[] communities, int count) {
+        int[] memberOffsets = new int[count + 1];
+        for (int c : communities) {
+            memberOffsets[c + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] members = new int[level.nodeCount];
+        int[] next = Arrays.copyOf(memberOffsets, count);
+        for (int node = 0; node < level.nodeCount; node++) {
+            members[next[communities[node]]++] = node;
+        }
+
+        double[] selfLoops = new double[count];
+        int[] offsets = new int[count + 1];
+        int[] targets = new int[level.targets.length];
+        double[] weights = new double[level.targets.length];
+        double[] accumulated = new double[count];
+        int[] touched = new int[count];
+        int size = 0;
+        for (int c = 0; c < count; c++) {
+            int touchedCount = 0;
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                int node = members[m];
+                selfLoops[c] += level.selfLoops[node];
+                for (int i = level.offsets[node]; i < level.offsets[node + 1]; i++) {
+                    int to = communities[level.targets[i]];
+                    if (to == c) {
+                        // Every internal edge is seen from both ends
+                        selfLoops[c] += level.weights[i] / 2;
+                    } else {
+                        if (accumulated[to] == 0) {
+                            touched[touchedCount++] = to;
+                        }
+                        accumulated[to] += level.weights[i];
+                    }
+                }
+            }
+            Arrays.sort(touched, 0, touchedCount);
+            for (int t = 0; t < touchedCount; t++) {
+                targets[size] = touched[t];
+                weights[size++] = accumulated[touched[t]];
+                accumulated[touched[t]] = 0;
+            }
+            offsets[c + 1] = size;
+        }
+        return new Level(count, offsets, Arrays.copyOf(targets, size), Arrays.copyOf(weights, size), selfLoops);
+    }
+
+    private static double modularity(Level level, int[] community) {
+        if (level.totalDegree == 0) {
+            return 0;
+        }
+        double[] inside = new double[level.nodeCount];
+        double[] totals = new double[level.nodeCount];
+        for (int node = 0; node < level.nodeCount; node++) {
+            int c = community[node];
+            totals[c] += level.degrees[node];
+            inside[c] += 2 * level.selfLoops[node];
+            for (int i = level.offsets[node]; i < level.offsets[node + 1]; i++) {
+                if (community[level.targets[i]] == c) {
+                    inside[c] += level.weights[i];
+                }
+            }
+        }
+        double q = 0;
+        for (int c = 0; c < level.nodeCount; c++) {
+            q += inside[c] / level.totalDegree - Math.pow(totals[c] / level.totalDegree, 2);
+        }
+        return q;
+    }
+
+    /**
+     * Modularity of a partition of the unweighted graph.
+     */
+    public static double modularity(CsrGraph graph, int[] communities) {
+        return modularity(baseLevel(graph), communities);
+    }
+
+    private static Level baseLevel(CsrGraph graph) {
+        int n = graph.nodeCount();
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[(int) graph.edgeCount() * 2];
+        for (int node = 0; node < n; node++) {
+            offsets[node + 1] = graph.neighborEnd(node);
+            for (int i = graph.neighborStart(node); i < graph.neighborEnd(node); i++) {
+                targets[i] = graph.target(i);
+            }
+        }
+        double[] weights = new double[targets.length];
+        Arrays.fill(weights, 1.0);
+        return new Level(n, offsets, targets, weights, new double[n]);
+    }
+}
@@ -0,0 +1,40 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Little-endian ints of a file section, mapped read-only in windows of 2^26 ints because a single
+ * mapping cannot exceed 2 GB. The mapping stays valid after the channel is closed.
+ */
+final class MappedIntView implements IntView {
+
+    static final int WINDOW_SHIFT = 26;
+    static final int WINDOW_INTS = 1 << WINDOW_SHIFT;
+    private static final int WINDOW_MASK = WINDOW_INTS - 1;
+
+    private final IntBuffer[] windows;
+    private final int length;
+
+    MappedIntView(FileChannel channel, long position, int length) throws IOException {
+        this.windows = new IntBuffer[(int) ((length + (long) WINDOW_MASK) >>> WINDOW_SHIFT)];
+        this.length = length;
+        for (int window = 0; window < windows.length; window++) {
+            int count = Math.min(WINDOW_INTS, length - window * WINDOW_INTS);
+            windows[window] = channel.map(FileChannel.MapMode.READ_ONLY, position + 4L * window * WINDOW_INTS,
+                    4L * count).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+    }
+
+    @Override
+    public int get(int index) {
+        return windows[index >>> WINDOW_SHIFT].get(index & WINDOW_MASK);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+}
@@ -0,0 +1,77 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Disjoint sets over dense int ids with union by size and path halving, growing as ids are added.
+ * Instances are not thread-safe.
+ */
+public class UnionFind {
+
+    private int[] parent = new int[1024];
+    private int[] size = new int[1024];
+    private int count;
+    private int components;
+
+    /**
+     * Adds a new singleton set and returns its id.
+     */
+    public int add() {
+        if (count == parent.length) {
+            parent = Arrays.copyOf(parent, count * 2);
+            size = Arrays.copyOf(size, count * 2);
+        }
+        parent[count] = count;
+        size[count] = 1;
+        components++;
+        return count++;
+    }
+
+    public int find(int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Merges the sets of both ids and returns the root of the result, or -1 when they were already
+     * in the same set.
+     */
+    public int union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return -1;
+        }
+        if (size[rootA] < size[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        components--;
+        return rootA;
+    }
+
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * Number of ids in the set that contains this id.
+     */
+    public int sizeOf(int id) {
+        return size[find(id)];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int componentCount() {
+        return components;
+    }
+}
@@ -0,0 +1,282 @@
+package engine;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Assigns dense int ids to words, starting at 0 in insertion order. Words are packed as UTF-8 bytes
+ * (one byte per letter for the ASCII words of the graph) into a single {@code byte[]} arena, and
+ * looked up through an open-addressing table of ids, so a word costs its length plus about 16 bytes
+ * instead of a {@code String} and a map entry. Lookups of ASCII words do not allocate. A dictionary read
+ * from a {@link GraphSnapshot} looks words up in the mapped file until it is first changed. Instances are
+ * not thread-safe.
+ */
+public class WordDictionary {
+
+    // Heap storage written by add(); null while the dictionary reads the sections of a mapped snapshot,
+    // which are copied to the heap by the first add
+    private byte[] arena;
+    // Word i occupies arena[starts[i] .. starts[i + 1])
+    private int[] starts;
+    private int[] hashes;
+    // Open addressing over ids + 1; 0 marks an empty slot
+    private int[] table;
+    private int arenaSize;
+    private int size;
+
+    // What lookups read: views of the arrays above, or of the mapped snapshot sections
+    private ByteBuffer arenaView;
+    private IntView startsView;
+    private IntView hashesView;
+    private IntView tableView;
+
+    public WordDictionary() {
+        this.arena = new byte[4096];
+        this.starts = new int[1025];
+        this.hashes = new int[1024];
+        this.table = new int[2048];
+        refreshViews();
+    }
+
+    public WordDictionary(WordDictionary other) {
+        this.arenaSize = other.arenaSize;
+        this.size = other.size;
+        if (other.arena != null) {
+            this.arena = Arrays.copyOf(other.arena, other.arena.length);
+            this.starts = Arrays.copyOf(other.starts, other.starts.length);
+            this.hashes = Arrays.copyOf(other.hashes, other.hashes.length);
+            this.table = Arrays.copyOf(other.table, other.table.length);
+            refreshViews();
+        } else {
+            this.arenaView = other.arenaView;
+            this.startsView = other.startsView;
+            this.hashesView = other.hashesView;
+            this.tableView = other.tableView;
+            copyToHeap();
+        }
+    }
+
+    // Reads a dictionary straight from the sections of a graph snapshot, without hashing or copying any word
+    WordDictionary(ByteBuffer arena, IntView starts, IntView hashes, IntView table) {
+        this.arenaView = arena;
+        this.arenaSize = arena.limit();
+        this.startsView = starts;
+        this.hashesView = hashes;
+        this.size = hashes.length();
+        this.tableView = table;
+    }
+
+    /**
+     * Returns the id of the word, adding it if it is not in the dictionary yet.
+     */
+    public int add(String word) {
+        if (arena == null) {
+            copyToHeap();
+        }
+        int hash = hash(word);
+        int slot = find(word, hash);
+        if (table[slot] != 0) {
+            return table[slot] - 1;
+        }
+
+        byte[] bytes = isAscii(word) ? null : word.getBytes(StandardCharsets.UTF_8);
+        int length = bytes != null ? bytes.length : word.length();
+        ensureCapacity(length);
+        if (bytes != null) {
+            System.arraycopy(bytes, 0, arena, arenaSize, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                arena[arenaSize + i] = (byte) word.charAt(i);
+            }
+        }
+        arenaSize += length;
+        hashes[size] = hash;
+        starts[size + 1] = arenaSize;
+        table[slot] = size + 1;
+        size++;
+        if (size * 2 > table.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    /**
+     * Returns the id of the word, or -1 if it is not in the dictionary.
+     */
+    public int idOf(String word) {
+        return tableView.get(find(word, hash(word))) - 1;
+    }
+
+    public String wordOf(int id) {
+        int start = startsView.get(id);
+        int length = startsView.get(id + 1) - start;
+        if (arena != null) {
+            return new String(arena, start, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        arenaView.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Length in bytes of the stored word.
+     */
+    public int lengthOf(int id) {
+        return startsView.get(id + 1) - startsView.get(id);
+    }
+
+    /**
+     * Byte at the given position of the stored word.
+     */
+    public byte byteAt(int id, int position) {
+        return arenaView.get(startsView.get(id) + position);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bytes used by the arena, the offsets and the hash table, on the heap or in the mapped snapshot.
+     */
+    public long memoryFootprint() {
+        return arenaView.capacity() + 4L * (startsView.length() + hashesView.length() + tableView.length());
+    }
+
+    // The word bytes, limited to the used part of the arena
+    ByteBuffer arena() {
+        return arenaView.duplicate().position(0).limit(arenaSize).slice();
+    }
+
+    // starts() holds size() + 1 used entries and hashes() size(); both may have spare capacity after them
+    IntView starts() {
+        return startsView;
+    }
+
+    IntView hashes() {
+        return hashesView;
+    }
+
+    IntView table() {
+        return tableView;
+    }
+
+    private int find(String word, int hash) {
+        int mask = tableView.length() - 1;
+        int slot = hash & mask;
+        int entry;
+        while ((entry = tableView.get(slot)) != 0) {
+            int id = entry - 1;
+            if (hashesView.get(id) == hash && matches(id, word)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean matches(int id, String word) {
+        int start = startsView.get(id);
+        int length = startsView.get(id + 1) - start;
+        if (!isAscii(word)) {
+            byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+            if (length != bytes.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (arenaView.get(start + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (length != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (arenaView.get(start + i) != (byte) word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Moves a mapped dictionary to heap arrays before its first change
+    private void copyToHeap() {
+        arena = new byte[Math.max(arenaSize, 16)];
+        arenaView.get(0, arena, 0, arenaSize);
+        hashes = new int[Math.max(size, 16)];
+        starts = new int[hashes.length + 1];
+        for (int id = 0; id < size; id++) {
+            hashes[id] = hashesView.get(id);
+            starts[id + 1] = startsView.get(id + 1);
+        }
+        table = new int[tableView.length()];
+        for (int slot = 0; slot < table.length; slot++) {
+            table[slot] = tableView.get(slot);
+        }
+        refreshViews();
+    }
+
+    private void refreshViews() {
+        arenaView = ByteBuffer.wrap(arena);
+        startsView = IntView.of(starts);
+        hashesView = IntView.of(hashes);
+        tableView = IntView.of(table);
+    }
+
+    private void ensureCapacity(int length) {
+        boolean grown = false;
+        if (arenaSize + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + length));
+            grown = true;
+        }
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, Math.max(hashes.length * 2, 16));
+            starts = Arrays.copyOf(starts, hashes.length + 1);
+            grown = true;
+        }
+        if (grown) {
+            refreshViews();
+        }
+    }
+
+    private void rehash() {
+        int[] grown = new int[table.length * 2];
+        int mask = grown.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (grown[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            grown[slot] = id + 1;
+        }
+        table = grown;
+        refreshViews();
+    }
+
+    // Hash of the UTF-8 bytes, computed from the chars for ASCII words
+    private static int hash(String word) {
+        int h = 0x811c9dc5;
+        if (isAscii(word)) {
+            for (int i = 0; i < word.length(); i++) {
+                h = (h ^ word.charAt(i)) * 0x01000193;
+            }
+        } else {
+            for (byte b : word.getBytes(StandardCharsets.UTF_8)) {
+                h = (h ^ (b & 0xff)) * 0x01000193;
+            }
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean isAscii(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+package graph;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import utils.GraphWordException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Durable record of the files already ingested, stored as JSON and keyed by absolute path plus
+ * size, modification time and SHA-256 of the content. Unchanged files are recognised from their
+ * metadata alone; a file whose metadata changed is hashed, and skipped when its content was
+ * already ingested under any path (e.g. a renamed or touched file).
+ */
+public class FileManifest {
+
+    private static final Gson GSON = new Gson();
+
+    private final Path manifestPath;
+    private final Map<String, Entry> entries;
+    private final Set<String> contentHashes = new HashSet<>();
+    // Hashes computed by isIngested for files that still have to be processed
+    private final Map<String, Entry> pending = new HashMap<>();
+
+    static class Entry {
+        long size;
+        long lastModified;
+        String sha256;
+
+        Entry(long size, long lastModified, String sha256) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sha256 = sha256;
+        }
+    }
+
+    public FileManifest(Path manifestPath) {
+        this.manifestPath = manifestPath;
+        this.entries = load(manifestPath);
+        for (Entry entry : entries.values()) {
+            contentHashes.add(entry.sha256);
+        }
+    }
+
+    /**
+     * Returns true when this file, or another file with the same content, has already been ingested.
+     */
+    public synchronized boolean isIngested(File file) {
+        String key = file.getAbsolutePath();
+        Entry known = entries.get(key);
+        if (known != null && known.size == file.length() && known.lastModified == file.lastModified()) {
+            return true;
+        }
+
+        Entry current = describe(file);
+        if (contentHashes.contains(current.sha256)) {
+            // Same content under a new path or modification time: remember it and skip it
+            entries.put(key, current);
+            save();
+            return true;
+        }
+        pending.put(key, current);
+        return false;
+    }
+
+    /**
+     * Records the file as ingested and writes the manifest to disk.
+     */
+    public synchronized void markIngested(File file) {
+        String key = file.getAbsolutePath();
+        Entry entry = pending.remove(key);
+        if (entry == null || entry.size != file.length() || entry.lastModified != file.lastModified()) {
+            entry = describe(file);
+        }
+        entries.put(key, entry);
+        contentHashes.add(entry.sha256);
+        save();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public Path getManifestPath() {
+        return manifestPath;
+    }
+
+    private static Map<String, Entry> load(Path manifestPath) {
+        if (!Files.exists(manifestPath)) {
+            return new HashMap<>();
+        }
+        try (Reader reader = Files.newBufferedReader(manifestPath)) {
+            Map<String, Entry> loaded = GSON.fromJson(reader, new TypeToken<Map<String, Entry>>() {}.getType());
+            return loaded != null ? new HashMap<>(loaded) : new HashMap<>();
+        } catch (Exception e) {
+            throw new GraphWordException("Failed to read file manifest: " + manifestPath, e);
+        }
+    }
+
+    // Written to a temporary file first so a crash never leaves a truncated manifest behind
+    private void save() {
+        Path temporary = manifestPath.resolveSibling(manifestPath.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary)) {
+                GSON.toJson(entries, writer);
+            }
+            Files.move(temporary, manifestPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new GraphWordException("Failed to write file manifest: " + manifestPath, e);
+        }
+    }
+
+    private static Entry describe(File file) {
+        long size = file.length();
+        long lastModified = file.lastModified();
+        return new Entry(size, lastModified, sha256(file));
+    }
+
+    private static String sha256(File file) {
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new GraphWordException("Failed to hash file: " + file, e);
+        }
+    }
+}
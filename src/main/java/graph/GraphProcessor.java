@@ -1,26 +1,94 @@
 package graph;
 
 import storage.GraphManipulation;
+import storage.ProjectionManager;
 import storage.WordFileReader;
 import utils.GraphWordException;
 import utils.ValidationUtils;
 
 import java.io.File;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
 
 public class GraphProcessor {
     private final WordFileReader wordFileReader;
     private final GraphManipulation graphManipulation;
+    private final int extractionThreads;
+    private final int writeConcurrency;
+    private final int streamBatchSize;
+    private final ProjectionManager projectionManager;
+    private final FileManifest fileManifest;
+    private final List<Runnable> directoryListeners = new CopyOnWriteArrayList<>();
     private Set<String> processedFiles;
 
     public GraphProcessor(WordFileReader wordFileReader, GraphManipulation graphManipulation) {
+        this(wordFileReader, graphManipulation, 1, 1);
+    }
+
+    /**
+     * @param extractionThreads number of files read in parallel
+     * @param writeConcurrency  number of files written to the graph storage at the same time
+     */
+    public GraphProcessor(WordFileReader wordFileReader, GraphManipulation graphManipulation,
+                          int extractionThreads, int writeConcurrency) {
+        this(wordFileReader, graphManipulation, new ProjectionManager(graphManipulation, "myGraph"),
+                extractionThreads, writeConcurrency);
+    }
+
+    public GraphProcessor(WordFileReader wordFileReader, GraphManipulation graphManipulation,
+                          ProjectionManager projectionManager, int extractionThreads, int writeConcurrency) {
+        this(wordFileReader, graphManipulation, projectionManager, extractionThreads, writeConcurrency, 0);
+    }
+
+    /**
+     * @param streamBatchSize when positive, files are streamed and written in batches of this many words
+     *                        instead of being read into a single set first
+     */
+    public GraphProcessor(WordFileReader wordFileReader, GraphManipulation graphManipulation,
+                          ProjectionManager projectionManager, int extractionThreads, int writeConcurrency,
+                          int streamBatchSize) {
+        this(wordFileReader, graphManipulation, projectionManager, extractionThreads, writeConcurrency,
+                streamBatchSize, null);
+    }
+
+    /**
+     * @param fileManifest durable record of ingested files, so unchanged files are skipped after a restart;
+     *                     {@code null} only remembers files processed by this instance
+     */
+    public GraphProcessor(WordFileReader wordFileReader, GraphManipulation graphManipulation,
+                          ProjectionManager projectionManager, int extractionThreads, int writeConcurrency,
+                          int streamBatchSize, FileManifest fileManifest) {
+        if (extractionThreads < 1 || writeConcurrency < 1) {
+            throw new GraphWordException("Extraction threads and write concurrency must be at least 1.");
+        }
         this.wordFileReader = wordFileReader;
         this.graphManipulation = graphManipulation;
-        this.processedFiles = new HashSet<>();
+        this.extractionThreads = extractionThreads;
+        this.writeConcurrency = writeConcurrency;
+        this.streamBatchSize = streamBatchSize;
+        this.projectionManager = projectionManager;
+        this.fileManifest = fileManifest;
+        this.processedFiles = ConcurrentHashMap.newKeySet();
     }
 
     public void processDirectory(String directoryPath) {
+        processDirectory(directoryPath, IngestionProgress.NONE);
+    }
+
+    /**
+     * Processes every new file of the directory, reporting each finished or failed file to the progress.
+     */
+    public void processDirectory(String directoryPath, IngestionProgress progress) {
         // Validate that the directory is not null or empty
         ValidationUtils.validateNotEmpty(directoryPath, "Directory path cannot be empty.");
 
@@ -31,25 +99,156 @@ public class GraphProcessor {
 
         File[] files = directory.listFiles();
         if (files == null || files.length == 0) {
+            progress.filesFound(0);
             System.out.println("No new files to process.");
             return;
         }
 
+        List<File> pendingFiles = new ArrayList<>();
         for (File file : files) {
-            if (!processedFiles.contains(file.getName()) && file.isFile()) {
+            if (file.isFile() && !isAlreadyProcessed(file)) {
+                pendingFiles.add(file);
+            }
+        }
+        progress.filesFound(pendingFiles.size());
+
+        // The projection is rebuilt once for the whole directory instead of after every file
+        projectionManager.beginBatch();
+        try {
+            if (extractionThreads == 1 && writeConcurrency == 1) {
+                for (File file : pendingFiles) {
+                    try {
+                        processGraph(file.getAbsolutePath());
+                        markProcessed(file);
+                        progress.fileProcessed(file);
+                    } catch (GraphWordException e) {
+                        System.err.println("Error processing file " + file.getName() + ": " + e.getMessage());
+                        progress.fileFailed(file, e.getMessage());
+                    }
+                }
+            } else {
+                processInParallel(pendingFiles, progress);
+            }
+        } catch (RuntimeException | Error e) {
+            // A failed refresh must not hide the error that stopped the run
+            try {
+                endProjectionBatch();
+            } catch (GraphWordException refreshError) {
+                e.addSuppressed(refreshError);
+            }
+            throw e;
+        }
+        endProjectionBatch();
+
+        if (!pendingFiles.isEmpty()) {
+            for (Runnable listener : directoryListeners) {
                 try {
-                    processGraph(file.getAbsolutePath());
-                    processedFiles.add(file.getName());
+                    listener.run();
                 } catch (GraphWordException e) {
-                    System.err.println("Error processing file " + file.getName() + ": " + e.getMessage());
+                    System.err.println("Error after processing directory: " + e.getMessage());
                 }
             }
         }
-
         System.out.println("Directory processing completed.");
     }
 
+    /**
+     * Registers an action run at the end of every directory run that found new files, once the
+     * projection has been rebuilt.
+     */
+    public void addDirectoryListener(Runnable listener) {
+        directoryListeners.add(listener);
+    }
+
     public void processGraph(String filePath) {
+        if (streamBatchSize > 0) {
+            streamGraph(filePath);
+        } else {
+            Set<String> words = extractWords(filePath);
+            writeWords(filePath, words);
+        }
+        markProjectionStale();
+    }
+
+    // Inserts and connects each batch as soon as it is read, so memory stays bounded by the batch size
+    // and the first writes start before the end of the file is reached
+    private void streamGraph(String filePath) {
+        ValidationUtils.validateNotEmpty(filePath, "File path cannot be empty.");
+        System.out.println("Streaming graph from file: " + filePath);
+
+        long wordCount = 0;
+        int batchCount = 0;
+        try (Stream<Set<String>> batches = wordFileReader.streamWords(filePath, streamBatchSize)) {
+            Iterator<Set<String>> iterator = batches.iterator();
+            while (iterator.hasNext()) {
+                Set<String> batch = iterator.next();
+                writeBatch(batch);
+                wordCount += batch.size();
+                batchCount++;
+            }
+        } catch (GraphWordException e) {
+            // Write failures already carry their own message
+            throw e;
+        } catch (Exception e) {
+            throw new GraphWordException("Failed to read words from file: " + filePath, e);
+        }
+
+        if (wordCount == 0) {
+            throw new GraphWordException("No valid words found in file: " + filePath);
+        }
+
+        System.out.println("Streamed words: " + wordCount + " in " + batchCount + " batches");
+        System.out.println("Graph successfully processed for file: " + filePath);
+    }
+
+    // Reads the files on a pool of extraction threads and hands each word set to a bounded pool of
+    // writers, so reading the next files overlaps with the graph writes of the previous ones.
+    private void processInParallel(List<File> files, IngestionProgress progress) {
+        ExecutorService extractors = Executors.newFixedThreadPool(extractionThreads);
+        ExecutorService writers = Executors.newFixedThreadPool(writeConcurrency);
+        // Caps the files extracted but not yet written, so word sets cannot pile up in memory
+        Semaphore inFlight = new Semaphore(extractionThreads + writeConcurrency);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        try {
+            for (File file : files) {
+                inFlight.acquireUninterruptibly();
+                String filePath = file.getAbsolutePath();
+                CompletableFuture<Void> task = streamBatchSize > 0
+                        // A streamed file is read and written in the same task, batch by batch
+                        ? CompletableFuture.runAsync(() -> processGraph(filePath), writers)
+                        : CompletableFuture
+                                .supplyAsync(() -> extractWords(filePath), extractors)
+                                .thenAcceptAsync(words -> {
+                                    writeWords(filePath, words);
+                                    markProjectionStale();
+                                }, writers);
+                tasks.add(task.handle((ignored, error) -> {
+                            inFlight.release();
+                            try {
+                                if (error == null) {
+                                    markProcessed(file);
+                                    progress.fileProcessed(file);
+                                } else {
+                                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                                    System.err.println("Error processing file " + file.getName() + ": " + cause.getMessage());
+                                    progress.fileFailed(file, cause.getMessage());
+                                }
+                            } catch (GraphWordException e) {
+                                System.err.println("Error processing file " + file.getName() + ": " + e.getMessage());
+                                progress.fileFailed(file, e.getMessage());
+                            }
+                            return null;
+                        }));
+            }
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        } finally {
+            extractors.shutdown();
+            writers.shutdown();
+        }
+    }
+
+    private Set<String> extractWords(String filePath) {
         ValidationUtils.validateNotEmpty(filePath, "File path cannot be empty.");
         System.out.println("Processing graph from file: " + filePath);
 
@@ -66,7 +265,15 @@ public class GraphProcessor {
         }
 
         System.out.println("Extracted words: " + words.size());
+        return words;
+    }
 
+    private void writeWords(String filePath, Set<String> words) {
+        writeBatch(words);
+        System.out.println("Graph successfully processed for file: " + filePath);
+    }
+
+    private void writeBatch(Set<String> words) {
         // Insert words into the graph
         try {
             graphManipulation.insertWords(words);
@@ -80,17 +287,47 @@ public class GraphProcessor {
         } catch (Exception e) {
             throw new GraphWordException("Failed to connect words with existing words in the graph storage.", e);
         }
+    }
 
-        System.out.println("Graph successfully processed for file: " + filePath);
+    // With a manifest, files are recognised by content and metadata rather than by name, so an edited
+    // file is processed again and a renamed one is not
+    private boolean isAlreadyProcessed(File file) {
+        if (fileManifest == null) {
+            return processedFiles.contains(file.getName());
+        }
+        if (file.getAbsoluteFile().toPath().equals(fileManifest.getManifestPath().toAbsolutePath())) {
+            return true;
+        }
+        try {
+            return fileManifest.isIngested(file);
+        } catch (GraphWordException e) {
+            System.err.println("Error checking file " + file.getName() + " against the manifest: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void markProcessed(File file) {
+        processedFiles.add(file.getName());
+        if (fileManifest != null) {
+            fileManifest.markIngested(file);
+        }
+    }
 
-        // Project the graph
+    // Outside a directory batch the projection is refreshed right away, or after the configured quiet period
+    private void markProjectionStale() {
         try {
-            graphManipulation.ensureGraphProjection("myGraph");
+            projectionManager.markStale();
         } catch (Exception e) {
             throw new GraphWordException("Failed to project the graph.", e);
         }
+    }
 
-        System.out.println("Graph successfully projected for file: " + filePath);
+    private void endProjectionBatch() {
+        try {
+            projectionManager.endBatch();
+        } catch (Exception e) {
+            throw new GraphWordException("Failed to project the graph.", e);
+        }
     }
 
     protected Set<String> getProcessedFiles() {
@@ -104,4 +341,8 @@ public class GraphProcessor {
     public GraphManipulation getGraphManipulation() {
         return graphManipulation;
     }
+
+    public ProjectionManager getProjectionManager() {
+        return projectionManager;
+    }
 }
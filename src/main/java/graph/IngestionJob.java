@@ -0,0 +1,139 @@
+package graph;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One asynchronous directory run submitted to {@link IngestionJobs}, with the progress counters that
+ * {@code GET /graph/jobs/{id}} reports while it runs.
+ */
+public class IngestionJob implements IngestionProgress {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String directory;
+    private final long submittedMillis;
+    private volatile State state = State.QUEUED;
+    private volatile long startedMillis;
+    private volatile long finishedMillis;
+    private volatile String error;
+    private volatile int totalFiles = -1;
+    private final AtomicInteger filesDone = new AtomicInteger();
+    private final AtomicInteger filesFailed = new AtomicInteger();
+    private final AtomicLong wordsWritten = new AtomicLong();
+    private final AtomicLong edgesCreated = new AtomicLong();
+
+    public IngestionJob(String id, String directory) {
+        this.id = id;
+        this.directory = directory;
+        this.submittedMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public void filesFound(int count) {
+        totalFiles = count;
+    }
+
+    @Override
+    public void fileProcessed(File file) {
+        filesDone.incrementAndGet();
+    }
+
+    @Override
+    public void fileFailed(File file, String message) {
+        filesFailed.incrementAndGet();
+    }
+
+    void start() {
+        startedMillis = System.currentTimeMillis();
+        state = State.RUNNING;
+    }
+
+    void complete() {
+        finishedMillis = System.currentTimeMillis();
+        state = State.COMPLETED;
+    }
+
+    void fail(String message) {
+        error = message;
+        finishedMillis = System.currentTimeMillis();
+        state = State.FAILED;
+    }
+
+    void addWords(int count) {
+        wordsWritten.addAndGet(count);
+    }
+
+    void addEdges(int count) {
+        edgesCreated.addAndGet(count);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    public int getFilesDone() {
+        return filesDone.get();
+    }
+
+    public int getFilesFailed() {
+        return filesFailed.get();
+    }
+
+    public long getWordsWritten() {
+        return wordsWritten.get();
+    }
+
+    public long getEdgesCreated() {
+        return edgesCreated.get();
+    }
+
+    /**
+     * Current status as JSON-friendly values. The ETA extrapolates the time per finished file to the
+     * files still pending, and is null until a file has finished.
+     */
+    public Map<String, Object> describe() {
+        State current = state;
+        long now = current == State.QUEUED ? submittedMillis
+                : finishedMillis > 0 ? finishedMillis : System.currentTimeMillis();
+        long elapsedMillis = current == State.QUEUED ? 0 : now - startedMillis;
+        int finishedFiles = filesDone.get() + filesFailed.get();
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", id);
+        status.put("directory", directory);
+        status.put("state", current.name());
+        status.put("totalFiles", totalFiles >= 0 ? totalFiles : null);
+        status.put("filesDone", filesDone.get());
+        status.put("filesFailed", filesFailed.get());
+        status.put("wordsWritten", wordsWritten.get());
+        status.put("edgesCreated", edgesCreated.get());
+        status.put("elapsedMillis", elapsedMillis);
+        status.put("wordsPerSecond", elapsedMillis > 0 ? wordsWritten.get() * 1000 / elapsedMillis : 0);
+        Long etaMillis = null;
+        if (current == State.RUNNING && totalFiles >= 0 && finishedFiles > 0) {
+            etaMillis = elapsedMillis * Math.max(totalFiles - finishedFiles, 0) / finishedFiles;
+        }
+        status.put("etaMillis", etaMillis);
+        status.put("error", error);
+        return status;
+    }
+}
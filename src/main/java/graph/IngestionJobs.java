@@ -0,0 +1,128 @@
+package graph;
+
+import storage.GraphChangeListener;
+import utils.GraphWordException;
+import utils.ValidationUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs directory ingestions as background jobs on a single dedicated thread, so a request only waits
+ * for the job to be queued. A submission for a directory that already has a queued job returns that
+ * job; otherwise the new job waits behind the running one. As a {@link GraphChangeListener} of the
+ * writes it counts the words and edges committed by the running job; it only needs the edge counts, so
+ * it does not make the writes read the connected pairs back.
+ */
+public class IngestionJobs implements GraphChangeListener, AutoCloseable {
+
+    public static final int MAX_RETAINED_JOBS = 100;
+
+    private final GraphProcessor graphProcessor;
+    private final ExecutorService executor;
+    // Insertion order, so the oldest finished jobs are forgotten first
+    private final Map<String, IngestionJob> jobs = new LinkedHashMap<>();
+    private volatile IngestionJob running;
+
+    public IngestionJobs(GraphProcessor graphProcessor) {
+        this.graphProcessor = graphProcessor;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "ingestion-jobs");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized IngestionJob submit(String directoryPath) {
+        ValidationUtils.validateNotEmpty(directoryPath, "Directory path cannot be empty.");
+        if (!new File(directoryPath).isDirectory()) {
+            throw new GraphWordException("Directory '" + directoryPath + "' does not exist or is not a directory.");
+        }
+
+        for (IngestionJob job : jobs.values()) {
+            if (job.getState() == IngestionJob.State.QUEUED && job.getDirectory().equals(directoryPath)) {
+                return job;
+            }
+        }
+
+        IngestionJob job = new IngestionJob(UUID.randomUUID().toString(), directoryPath);
+        jobs.put(job.getId(), job);
+        forgetOldJobs();
+        executor.execute(() -> run(job));
+        return job;
+    }
+
+    /**
+     * Returns the job, or {@code null} if it is unknown or was forgotten.
+     */
+    public synchronized IngestionJob get(String id) {
+        return jobs.get(id);
+    }
+
+    public synchronized List<IngestionJob> list() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    @Override
+    public void wordsInserted(Collection<String> words) {
+        IngestionJob job = running;
+        if (job != null) {
+            job.addWords(words.size());
+        }
+    }
+
+    // Only reached from sources that report pairs without counts; GraphManipulator calls edgesCreated
+    @Override
+    public void wordsConnected(Collection<List<String>> pairs) {
+        edgesCreated(pairs.size());
+    }
+
+    @Override
+    public void edgesCreated(int count) {
+        IngestionJob job = running;
+        if (job != null) {
+            job.addEdges(count);
+        }
+    }
+
+    @Override
+    public boolean needsPairs() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void run(IngestionJob job) {
+        running = job;
+        job.start();
+        try {
+            graphProcessor.processDirectory(job.getDirectory(), job);
+            job.complete();
+        } catch (RuntimeException e) {
+            System.err.println("Ingestion job " + job.getId() + " failed: " + e.getMessage());
+            job.fail(e.getMessage());
+        } finally {
+            running = null;
+        }
+    }
+
+    private void forgetOldJobs() {
+        Iterator<IngestionJob> iterator = jobs.values().iterator();
+        while (jobs.size() > MAX_RETAINED_JOBS && iterator.hasNext()) {
+            if (iterator.next().isFinished()) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package graph;
+
+import java.io.File;
+
+/**
+ * Receives the progress of a directory run of {@link GraphProcessor}. Files may be reported from
+ * several threads when they are processed in parallel.
+ */
+public interface IngestionProgress {
+
+    IngestionProgress NONE = new IngestionProgress() {
+    };
+
+    /**
+     * Number of new files the run is going to process.
+     */
+    default void filesFound(int count) {
+    }
+
+    default void fileProcessed(File file) {
+    }
+
+    default void fileFailed(File file, String message) {
+    }
+}
@@ -0,0 +1,229 @@
+package storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Decorates another {@link GraphAnalysis} with a size-bounded LRU cache of its results, keyed by
+ * method, parameters and the graph version. As a {@link GraphChangeListener} of the ingestion it bumps
+ * the version on every committed write, which drops every entry; results computed while the version
+ * changed are returned but not stored. Cached values are shared between callers and must not be
+ * modified.
+ */
+public class CachingGraphAnalysis implements GraphAnalysis, GraphChangeListener {
+
+    private final GraphAnalysis delegate;
+    private final int maxEntries;
+    private final Map<List<Object>, Object> entries;
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingGraphAnalysis(GraphAnalysis delegate, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1: " + maxEntries);
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+                return size() > CachingGraphAnalysis.this.maxEntries;
+            }
+        };
+    }
+
+    public GraphAnalysis getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void wordsInserted(Collection<String> words) {
+        invalidate();
+    }
+
+    @Override
+    public void wordsConnected(Collection<List<String>> pairs) {
+        invalidate();
+    }
+
+    @Override
+    public void edgesCreated(int count) {
+        invalidate();
+    }
+
+    // Any change is enough to move to a new version
+    @Override
+    public boolean needsPairs() {
+        return false;
+    }
+
+    /**
+     * Moves to a new graph version, so every result is computed again.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    @Override
+    public List<String> findShortestPath(String source, String target) {
+        return cached(() -> delegate.findShortestPath(source, target), "shortestPath", source, target);
+    }
+
+    // Each pair is cached under the same key as findShortestPath; only the misses reach the delegate
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<List<String>> findShortestPaths(List<List<String>> pairs) {
+        long current = version.get();
+        List<List<String>> paths = new ArrayList<>(pairs.size());
+        List<List<String>> missing = new ArrayList<>();
+        synchronized (entries) {
+            for (List<String> pair : pairs) {
+                List<String> path = (List<String>) entries.get(key(current, "shortestPath", pair.get(0), pair.get(1)));
+                paths.add(path);
+                if (path == null) {
+                    missing.add(pair);
+                }
+            }
+        }
+        hits.add(pairs.size() - missing.size());
+        misses.add(missing.size());
+        if (missing.isEmpty()) {
+            return paths;
+        }
+
+        List<List<String>> found = delegate.findShortestPaths(missing);
+        synchronized (entries) {
+            for (int i = 0, next = 0; i < paths.size(); i++) {
+                if (paths.get(i) == null) {
+                    List<String> pair = pairs.get(i);
+                    List<String> path = found.get(next++);
+                    paths.set(i, path);
+                    if (path != null && version.get() == current) {
+                        entries.put(key(current, "shortestPath", pair.get(0), pair.get(1)), path);
+                    }
+                }
+            }
+        }
+        return paths;
+    }
+
+    @Override
+    public List<List<String>> findCommunities() {
+        return cached(delegate::findCommunities, "communities");
+    }
+
+    @Override
+    public List<String> findIsolatedNodes() {
+        return cached(delegate::findIsolatedNodes, "isolatedNodes");
+    }
+
+    @Override
+    public List<List<String>> findAllPaths(String source, String target, int k, int maxLength) {
+        return cached(() -> delegate.findAllPaths(source, target, k, maxLength), "allPaths",
+                source, target, k, maxLength);
+    }
+
+    @Override
+    public int findMaximumDistance() {
+        return cached(delegate::findMaximumDistance, "maximumDistance");
+    }
+
+    @Override
+    public MaximumDistance findMaximumDistanceWithEndpoints() {
+        return cached(delegate::findMaximumDistanceWithEndpoints, "maximumDistanceWithEndpoints");
+    }
+
+    @Override
+    public MaximumDistance estimateMaximumDistance(long budgetMillis) {
+        return cached(() -> delegate.estimateMaximumDistance(budgetMillis), "estimateMaximumDistance", budgetMillis);
+    }
+
+    @Override
+    public Map<Integer, Integer> findComponentSizes() {
+        return cached(delegate::findComponentSizes, "componentSizes");
+    }
+
+    @Override
+    public List<String> findHighConnectivityNodes(int minDegree) {
+        return cached(() -> delegate.findHighConnectivityNodes(minDegree), "highConnectivityNodes", minDegree);
+    }
+
+    @Override
+    public List<String> findNodesByDegree(int degree) {
+        return cached(() -> delegate.findNodesByDegree(degree), "nodesByDegree", degree);
+    }
+
+    @Override
+    public Map<Integer, Integer> findDegreeHistogram() {
+        return cached(delegate::findDegreeHistogram, "degreeHistogram");
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    // Exceptions are not cached: the next call asks the delegate again
+    @SuppressWarnings("unchecked")
+    private <T> T cached(Supplier<T> query, String method, Object... params) {
+        long current = version.get();
+        List<Object> key = key(current, method, params);
+
+        synchronized (entries) {
+            Object value = entries.get(key);
+            if (value != null) {
+                hits.increment();
+                return (T) value;
+            }
+        }
+        misses.increment();
+        T value = query.get();
+        synchronized (entries) {
+            if (value != null && version.get() == current) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    private static List<Object> key(long version, String method, Object... params) {
+        Object[] parts = new Object[params.length + 2];
+        parts[0] = version;
+        parts[1] = method;
+        System.arraycopy(params, 0, parts, 2, params.length);
+        return Arrays.asList(parts);
+    }
+}
@@ -0,0 +1,206 @@
+package storage;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Decorates another {@link GraphAnalysis} so that concurrent identical calls (same method and
+ * parameters) share a single in-flight computation: the first caller runs it and the others wait for
+ * its result or its exception. Nothing is kept once the computation ends, so later calls run again;
+ * combine it with {@link CachingGraphAnalysis} to reuse results. As a {@link GraphChangeListener} of the
+ * ingestion it moves to a new graph version on every committed write, and a call never joins a
+ * computation started under an older version.
+ */
+public class CoalescingGraphAnalysis implements GraphAnalysis, GraphChangeListener {
+
+    private final GraphAnalysis delegate;
+    private final AtomicLong version = new AtomicLong();
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder computations = new LongAdder();
+    private final LongAdder coalescedCalls = new LongAdder();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final AtomicInteger peakWaiters = new AtomicInteger();
+
+    public CoalescingGraphAnalysis(GraphAnalysis delegate) {
+        this.delegate = delegate;
+    }
+
+    public GraphAnalysis getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void wordsInserted(Collection<String> words) {
+        invalidate();
+    }
+
+    @Override
+    public void wordsConnected(Collection<List<String>> pairs) {
+        invalidate();
+    }
+
+    @Override
+    public void edgesCreated(int count) {
+        invalidate();
+    }
+
+    // Any change is enough to move to a new version
+    @Override
+    public boolean needsPairs() {
+        return false;
+    }
+
+    /**
+     * Moves to a new graph version, so later calls do not join the computations already in flight.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Calls that ran a computation of the delegate.
+     */
+    public long getComputationCount() {
+        return computations.sum();
+    }
+
+    /**
+     * Calls that joined a computation already in flight instead of starting their own.
+     */
+    public long getCoalescedCount() {
+        return coalescedCalls.sum();
+    }
+
+    /**
+     * Callers waiting right now for a computation started by someone else.
+     */
+    public int getWaiterCount() {
+        return waiters.get();
+    }
+
+    public int getPeakWaiterCount() {
+        return peakWaiters.get();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    @Override
+    public List<String> findShortestPath(String source, String target) {
+        return shared(() -> delegate.findShortestPath(source, target), "shortestPath", source, target);
+    }
+
+    // Batches are rarely identical, so they go straight to the delegate
+    @Override
+    public List<List<String>> findShortestPaths(List<List<String>> pairs) {
+        return delegate.findShortestPaths(pairs);
+    }
+
+    @Override
+    public List<List<String>> findCommunities() {
+        return shared(delegate::findCommunities, "communities");
+    }
+
+    @Override
+    public List<String> findIsolatedNodes() {
+        return shared(delegate::findIsolatedNodes, "isolatedNodes");
+    }
+
+    @Override
+    public List<List<String>> findAllPaths(String source, String target, int k, int maxLength) {
+        return shared(() -> delegate.findAllPaths(source, target, k, maxLength), "allPaths",
+                source, target, k, maxLength);
+    }
+
+    @Override
+    public int findMaximumDistance() {
+        return shared(delegate::findMaximumDistance, "maximumDistance");
+    }
+
+    @Override
+    public MaximumDistance findMaximumDistanceWithEndpoints() {
+        return shared(delegate::findMaximumDistanceWithEndpoints, "maximumDistanceWithEndpoints");
+    }
+
+    @Override
+    public MaximumDistance estimateMaximumDistance(long budgetMillis) {
+        return shared(() -> delegate.estimateMaximumDistance(budgetMillis), "estimateMaximumDistance", budgetMillis);
+    }
+
+    @Override
+    public Map<Integer, Integer> findComponentSizes() {
+        return shared(delegate::findComponentSizes, "componentSizes");
+    }
+
+    @Override
+    public List<String> findHighConnectivityNodes(int minDegree) {
+        return shared(() -> delegate.findHighConnectivityNodes(minDegree), "highConnectivityNodes", minDegree);
+    }
+
+    @Override
+    public List<String> findNodesByDegree(int degree) {
+        return shared(() -> delegate.findNodesByDegree(degree), "nodesByDegree", degree);
+    }
+
+    @Override
+    public Map<Integer, Integer> findDegreeHistogram() {
+        return shared(delegate::findDegreeHistogram, "degreeHistogram");
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T shared(Supplier<T> query, String method, Object... params) {
+        Object[] parts = new Object[params.length + 2];
+        parts[0] = version.get();
+        parts[1] = method;
+        System.arraycopy(params, 0, parts, 2, params.length);
+        List<Object> key = Arrays.asList(parts);
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalescedCalls.increment();
+            peakWaiters.accumulateAndGet(waiters.incrementAndGet(), Math::max);
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            } finally {
+                waiters.decrementAndGet();
+            }
+        }
+
+        computations.increment();
+        try {
+            T value = query.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package storage;
+
+import engine.GraphSnapshot;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Writes the community assignment back to Neo4j as the {@code communityId} property of every word, so
+ * later community reads are property scans. The write runs on its own thread once ingestion has been
+ * quiet for the configured delay, so a burst of batches leads to a single write.
+ */
+public class CommunityWriteBack implements GraphChangeListener, AutoCloseable {
+
+    private final GraphAnalysis communities;
+    private final GraphManipulation graphManipulation;
+    private final Supplier<GraphSnapshot.Stamp> stamps;
+    private final ProjectionManager projectionManager;
+    private final long delayMillis;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduledWrite;
+    private long writeCount;
+
+    /**
+     * @param communities       engine the assignment is computed with
+     * @param stamps            current word and edge counts, recorded with the assignment
+     * @param projectionManager when not null, a stale projection is rebuilt before the assignment is computed
+     * @param delayMillis       time without writes before the assignment is written
+     */
+    public CommunityWriteBack(GraphAnalysis communities, GraphManipulation graphManipulation,
+                              Supplier<GraphSnapshot.Stamp> stamps, ProjectionManager projectionManager,
+                              long delayMillis) {
+        this.communities = communities;
+        this.graphManipulation = graphManipulation;
+        this.stamps = stamps;
+        this.projectionManager = projectionManager;
+        this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public void wordsInserted(Collection<String> words) {
+        schedule();
+    }
+
+    @Override
+    public void wordsConnected(Collection<List<String>> pairs) {
+        // edgesCreated already reports the change
+    }
+
+    @Override
+    public void edgesCreated(int count) {
+        schedule();
+    }
+
+    @Override
+    public boolean needsPairs() {
+        return false;
+    }
+
+    /**
+     * Writes the assignment after the delay, replacing a write that is still waiting.
+     */
+    public synchronized void schedule() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "community-write-back");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (scheduledWrite != null) {
+            scheduledWrite.cancel(false);
+        }
+        scheduledWrite = scheduler.schedule(() -> {
+            try {
+                write();
+            } catch (RuntimeException e) {
+                System.err.println("Error writing community ids: " + e.getMessage());
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Computes the assignment and writes it. The counts are read first: a write that lands while the
+     * assignment is computed changes them, so the stored ids are not taken as current.
+     */
+    public void write() {
+        if (projectionManager != null) {
+            projectionManager.refreshIfStale();
+        }
+        GraphSnapshot.Stamp stamp = stamps.get();
+        Map<String, Integer> communityIds = new HashMap<>();
+        int[] communityId = new int[1];
+        communities.forEachCommunity(members -> {
+            for (String member : members) {
+                communityIds.put(member, communityId[0]);
+            }
+            communityId[0]++;
+        });
+        graphManipulation.writeCommunityIds(communityIds, stamp);
+        synchronized (this) {
+            writeCount++;
+        }
+        System.out.println("Community ids written: " + communityIds.size() + " words in " + communityId[0]
+                + " communities");
+    }
+
+    public synchronized long getWriteCount() {
+        return writeCount;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package storage;
+
+import engine.UnionFind;
+import engine.WordDictionary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Connected components of the word graph, kept with union-find as words and edges are reported by the
+ * ingestion. Membership, isolation, reachability and component-size questions are answered without
+ * touching the graph; edges are never removed, so components only ever merge.
+ */
+public class ComponentIndex implements GraphChangeListener {
+
+    private final WordDictionary dictionary = new WordDictionary();
+    private final UnionFind components = new UnionFind();
+    private final Set<Integer> isolated = new LinkedHashSet<>();
+    // Component size -> number of components of that size
+    private final TreeMap<Integer, Integer> sizeCounts = new TreeMap<>(Collections.reverseOrder());
+
+    @Override
+    public synchronized void wordsInserted(Collection<String> words) {
+        for (String word : words) {
+            idOf(word);
+        }
+    }
+
+    @Override
+    public synchronized void wordsConnected(Collection<List<String>> pairs) {
+        for (List<String> pair : pairs) {
+            int a = idOf(pair.get(0));
+            int b = idOf(pair.get(1));
+            if (a == b) {
+                continue;
+            }
+            int sizeA = components.sizeOf(a);
+            int sizeB = components.sizeOf(b);
+            if (components.union(a, b) >= 0) {
+                isolated.remove(a);
+                isolated.remove(b);
+                decrement(sizeA);
+                decrement(sizeB);
+                sizeCounts.merge(sizeA + sizeB, 1, Integer::sum);
+            }
+        }
+    }
+
+    public synchronized boolean contains(String word) {
+        return dictionary.idOf(word) >= 0;
+    }
+
+    public synchronized boolean isIsolated(String word) {
+        int id = dictionary.idOf(word);
+        return id >= 0 && isolated.contains(id);
+    }
+
+    /**
+     * Returns true when both words are known and belong to the same component.
+     */
+    public synchronized boolean connected(String source, String target) {
+        int a = dictionary.idOf(source);
+        int b = dictionary.idOf(target);
+        return a >= 0 && b >= 0 && components.connected(a, b);
+    }
+
+    /**
+     * Number of words in the component of the word, or 0 when it is unknown.
+     */
+    public synchronized int componentSize(String word) {
+        int id = dictionary.idOf(word);
+        return id >= 0 ? components.sizeOf(id) : 0;
+    }
+
+    public synchronized List<String> isolatedWords() {
+        List<String> words = new ArrayList<>(isolated.size());
+        for (int id : isolated) {
+            words.add(dictionary.wordOf(id));
+        }
+        return words;
+    }
+
+    /**
+     * Component size -> number of components of that size, largest first.
+     */
+    public synchronized Map<Integer, Integer> componentSizes() {
+        return new LinkedHashMap<>(sizeCounts);
+    }
+
+    public synchronized int componentCount() {
+        return components.componentCount();
+    }
+
+    public synchronized int wordCount() {
+        return components.size();
+    }
+
+    private int idOf(String word) {
+        int id = dictionary.idOf(word);
+        if (id < 0) {
+            id = dictionary.add(word);
+            components.add();
+            isolated.add(id);
+            sizeCounts.merge(1, 1, Integer::sum);
+        }
+        return id;
+    }
+
+    private void decrement(int size) {
+        sizeCounts.computeIfPresent(size, (key, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -0,0 +1,13 @@
+package storage;
+
+/**
+ * Strategy used by {@link GraphManipulator#connectWithExistingWords} to find the stored words
+ * that differ from a new word by one letter.
+ */
+public enum ConnectMode {
+    /** Keep every stored word in an in-process {@link WordNeighborIndex}. */
+    NEIGHBOR_INDEX,
+
+    /** Generate the one-letter variants of each new word and look them up on the indexed name. */
+    CANDIDATES
+}
@@ -0,0 +1,128 @@
+package storage;
+
+import engine.WordDictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Degree of every word, kept up to date from the edges reported by the ingestion, with the words
+ * grouped in buckets by degree. Exact-degree lookups read one bucket and minimum-degree lookups read
+ * the buckets from the highest degree down. Each word keeps its neighbor ids so that edges reported
+ * more than once are only counted once.
+ */
+public class DegreeIndex implements GraphChangeListener {
+
+    private final WordDictionary dictionary = new WordDictionary();
+    private int[] degrees = new int[1024];
+    private int[][] neighbors = new int[1024][];
+    // Degree -> ids of the words with that degree, highest degree first
+    private final TreeMap<Integer, Set<Integer>> buckets = new TreeMap<>(Collections.reverseOrder());
+
+    @Override
+    public synchronized void wordsInserted(Collection<String> words) {
+        for (String word : words) {
+            idOf(word);
+        }
+    }
+
+    @Override
+    public synchronized void wordsConnected(Collection<List<String>> pairs) {
+        for (List<String> pair : pairs) {
+            int a = idOf(pair.get(0));
+            int b = idOf(pair.get(1));
+            if (a != b && !isNeighbor(a, b)) {
+                addNeighbor(a, b);
+                addNeighbor(b, a);
+            }
+        }
+    }
+
+    /**
+     * Degree of the word, or -1 when it is unknown.
+     */
+    public synchronized int degreeOf(String word) {
+        int id = dictionary.idOf(word);
+        return id >= 0 ? degrees[id] : -1;
+    }
+
+    public synchronized List<String> wordsWithDegree(int degree) {
+        return words(buckets.getOrDefault(degree, Set.of()), new ArrayList<>());
+    }
+
+    /**
+     * Words with at least {@code minDegree} neighbors, highest degree first.
+     */
+    public synchronized List<String> wordsWithMinDegree(int minDegree) {
+        List<String> words = new ArrayList<>();
+        for (Set<Integer> bucket : buckets.headMap(minDegree, true).values()) {
+            words(bucket, words);
+        }
+        return words;
+    }
+
+    /**
+     * Degree -> number of words with that degree, lowest degree first.
+     */
+    public synchronized Map<Integer, Integer> histogram() {
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Set<Integer>> bucket : buckets.descendingMap().entrySet()) {
+            histogram.put(bucket.getKey(), bucket.getValue().size());
+        }
+        return histogram;
+    }
+
+    private int idOf(String word) {
+        int id = dictionary.idOf(word);
+        if (id < 0) {
+            id = dictionary.add(word);
+            if (id == neighbors.length) {
+                neighbors = Arrays.copyOf(neighbors, id * 2);
+                degrees = Arrays.copyOf(degrees, id * 2);
+            }
+            neighbors[id] = new int[4];
+            buckets.computeIfAbsent(0, degree -> new LinkedHashSet<>()).add(id);
+        }
+        return id;
+    }
+
+    private void addNeighbor(int id, int neighbor) {
+        int degree = degrees[id];
+        if (degree == neighbors[id].length) {
+            neighbors[id] = Arrays.copyOf(neighbors[id], degree * 2);
+        }
+        neighbors[id][degree] = neighbor;
+        degrees[id] = degree + 1;
+
+        Set<Integer> bucket = buckets.get(degree);
+        bucket.remove(id);
+        if (bucket.isEmpty()) {
+            buckets.remove(degree);
+        }
+        buckets.computeIfAbsent(degree + 1, key -> new LinkedHashSet<>()).add(id);
+    }
+
+    private boolean isNeighbor(int id, int other) {
+        for (int i = 0; i < degrees[id]; i++) {
+            if (neighbors[id][i] == other) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> words(Set<Integer> ids, List<String> words) {
+        for (int id : ids) {
+            words.add(dictionary.wordOf(id));
+        }
+        return words;
+    }
+}
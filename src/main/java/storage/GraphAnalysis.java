@@ -1,21 +1,90 @@
 package storage;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface GraphAnalysis {
+    int DEFAULT_PATH_COUNT = 10;
+    int DEFAULT_MAX_PATH_LENGTH = 10;
+
     List<String> findShortestPath(String source, String target);
 
+    /**
+     * Shortest path of every pair, given as a list with its source and target, in input order. A pair
+     * without a path gets an empty list.
+     */
+    default List<List<String>> findShortestPaths(List<List<String>> pairs) {
+        List<List<String>> paths = new ArrayList<>(pairs.size());
+        for (List<String> pair : pairs) {
+            paths.add(findShortestPath(pair.get(0), pair.get(1)));
+        }
+        return paths;
+    }
+
     List<List<String>> findCommunities();
 
     List<String> findIsolatedNodes();
 
-    List<List<String>> findAllPaths(String source, String target);
+    /**
+     * Passes every community of {@link #findCommunities()} to the consumer in the same order.
+     * Implementations reading a cursor pass them on as they arrive instead of collecting them first.
+     */
+    default void forEachCommunity(Consumer<List<String>> consumer) {
+        findCommunities().forEach(consumer);
+    }
+
+    /**
+     * Passes every word of {@link #findIsolatedNodes()} to the consumer, without collecting them when
+     * the implementation can avoid it.
+     */
+    default void forEachIsolatedNode(Consumer<String> consumer) {
+        findIsolatedNodes().forEach(consumer);
+    }
+
+    default List<List<String>> findAllPaths(String source, String target) {
+        return findAllPaths(source, target, DEFAULT_PATH_COUNT, DEFAULT_MAX_PATH_LENGTH);
+    }
+
+    /**
+     * Returns up to {@code k} simple paths with at most {@code maxLength} edges, shortest first.
+     */
+    List<List<String>> findAllPaths(String source, String target, int k, int maxLength);
 
     int findMaximumDistance();
 
+    /**
+     * Same distance as {@link #findMaximumDistance()}, together with a pair of words that realizes it
+     * when the implementation can tell.
+     */
+    default MaximumDistance findMaximumDistanceWithEndpoints() {
+        return new MaximumDistance(findMaximumDistance(), null, null);
+    }
+
+    /**
+     * Bounds the maximum distance within roughly {@code budgetMillis}, trading accuracy for latency.
+     * Implementations that cannot stop early return the exact value as a zero-width interval.
+     */
+    default MaximumDistance estimateMaximumDistance(long budgetMillis) {
+        MaximumDistance exact = findMaximumDistanceWithEndpoints();
+        return MaximumDistance.approximate(exact.getMaximumDistance(), exact.getMaximumDistance(),
+                exact.getSource(), exact.getTarget(), 0);
+    }
+
+    /**
+     * Component size -> number of connected components of that size, largest first.
+     */
+    Map<Integer, Integer> findComponentSizes();
+
     List<String> findHighConnectivityNodes(int minDegree);
 
     List<String> findNodesByDegree(int degree);
 
+    /**
+     * Degree -> number of words with that degree, lowest degree first.
+     */
+    Map<Integer, Integer> findDegreeHistogram();
+
     void close();
 }
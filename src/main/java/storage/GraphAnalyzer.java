@@ -1,26 +1,75 @@
 package storage;
 
+import engine.GraphSnapshot;
 import org.neo4j.driver.*;
+import utils.GraphWordException;
 
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 public class GraphAnalyzer implements GraphAnalysis, AutoCloseable {
 
+    private static final int SHORTEST_PATH_CHUNK_SIZE = 100;
+    // Chunks of a batch sent to Neo4j at the same time
+    private static final int SHORTEST_PATH_THREADS = 4;
+
     private final Driver driver;
+    private final ProjectionManager projectionManager;
+    private final boolean readsCommunityIds;
+    // The sessions block, so they get their own threads instead of the common ForkJoin pool
+    private final ExecutorService shortestPathExecutor = Executors.newFixedThreadPool(SHORTEST_PATH_THREADS, task -> {
+        Thread thread = new Thread(task, "shortest-paths");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public GraphAnalyzer(String uri, String user, String password) {
-        this.driver = GraphDatabase.driver(uri, AuthTokens.basic(user, password));
+        this(uri, user, password, null);
+    }
+
+    public GraphAnalyzer(String uri, String user, String password, ProjectionManager projectionManager) {
+        this(uri, user, password, projectionManager, false);
+    }
+
+    /**
+     * @param readsCommunityIds when true, communities are read from the {@code communityId} property
+     *                          while its recorded counts match the stored graph, instead of running Louvain
+     */
+    public GraphAnalyzer(String uri, String user, String password, ProjectionManager projectionManager,
+                         boolean readsCommunityIds) {
+        this(GraphDatabase.driver(uri, AuthTokens.basic(user, password)), projectionManager, readsCommunityIds);
     }
 
     public GraphAnalyzer(Driver driver) { // Constructor adicional para inyección de Driver
+        this(driver, null);
+    }
+
+    public GraphAnalyzer(Driver driver, ProjectionManager projectionManager) {
+        this(driver, projectionManager, false);
+    }
+
+    public GraphAnalyzer(Driver driver, ProjectionManager projectionManager, boolean readsCommunityIds) {
         this.driver = driver;
+        this.projectionManager = projectionManager;
+        this.readsCommunityIds = readsCommunityIds;
     }
 
     // mejorable
     @Override
     public List<String> findShortestPath(String source, String target) {
         List<String> path = new ArrayList<>();
+        if (source.equals(target)) {
+            // shortestPath rejects identical endpoints
+            return path;
+        }
         try (Session session = driver.session()) {
             var result = session.run(
                     "MATCH path = shortestPath((start:Word {name: $source})-[:CONNECTED*]-(end:Word {name: $target})) " +
@@ -30,23 +79,83 @@ public class GraphAnalyzer implements GraphAnalysis, AutoCloseable {
                 path = result.next().get("path").asList(org.neo4j.driver.Value::asString);
             }
         } catch (Exception e) {
-            System.err.println("Error in findShortestPath: " + e.getMessage());
+            throw new GraphWordException("Failed to find the shortest path: " + e.getMessage(), e);
         }
         return path;
     }
 
-    // terminada
+    // Pairs are sent in chunks, one UNWIND query and session per chunk, and the chunks run in parallel;
+    // identical endpoints are skipped, as shortestPath rejects them. A failed chunk fails the whole call,
+    // so its pairs are not mistaken for pairs without a path
     @Override
-    public List<List<String>> findAllPaths(String source, String target) {
+    public List<List<String>> findShortestPaths(List<List<String>> pairs) {
+        List<List<String>> paths = new ArrayList<>(pairs.size());
+        List<Map<String, Object>> requests = new ArrayList<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            paths.add(new ArrayList<>());
+            String source = pairs.get(i).get(0);
+            String target = pairs.get(i).get(1);
+            if (!source.equals(target)) {
+                requests.add(Map.of("index", i, "source", source, "target", target));
+            }
+        }
+
+        List<List<Map<String, Object>>> chunks = new ArrayList<>();
+        for (int from = 0; from < requests.size(); from += SHORTEST_PATH_CHUNK_SIZE) {
+            chunks.add(requests.subList(from, Math.min(from + SHORTEST_PATH_CHUNK_SIZE, requests.size())));
+        }
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (List<Map<String, Object>> chunk : chunks) {
+            tasks.add(CompletableFuture.runAsync(() -> findShortestPathChunk(chunk, paths), shortestPathExecutor));
+        }
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw new GraphWordException("Failed to find shortest paths: " + cause.getMessage(), cause);
+        }
+        return paths;
+    }
+
+    private void findShortestPathChunk(List<Map<String, Object>> chunk, List<List<String>> paths) {
+        try (Session session = driver.session()) {
+            var result = session.run(
+                    "UNWIND $pairs AS pair " +
+                            "MATCH (start:Word {name: pair.source}), (end:Word {name: pair.target}) " +
+                            "MATCH path = shortestPath((start)-[:CONNECTED*]-(end)) " +
+                            "RETURN pair.index AS index, [node IN nodes(path) | node.name] AS path",
+                    Values.parameters("pairs", chunk));
+            while (result.hasNext()) {
+                org.neo4j.driver.Record record = result.next(); // Uso explícito de Record
+                List<String> path = record.get("path").asList(Value::asString);
+                synchronized (paths) {
+                    paths.set(record.get("index").asInt(), path);
+                }
+            }
+        }
+    }
+
+    // Yen's k shortest simple paths on the GDS projection: at most k shortest-path searches, instead of
+    // enumerating every simple path up to maxLength. Paths come shortest first, so the ones longer than
+    // maxLength are simply dropped
+    @Override
+    public List<List<String>> findAllPaths(String source, String target, int k, int maxLength) {
         List<List<String>> allPaths = new ArrayList<>();
+        if (source.equals(target)) {
+            return allPaths;
+        }
         try (Session session = driver.session()) {
+            awaitProjection();
             var result = session.run(
-                    "MATCH path = (start:Word {name: $source})-[*]-(end:Word {name: $target}) " +
-                            "WHERE ALL(node IN nodes(path) WHERE single(x IN nodes(path) WHERE x = node)) " +
-                            "RETURN [node IN nodes(path) | node.name] AS path, size(relationships(path)) AS length " +
-                            "ORDER BY length ASC " +
-                            "LIMIT 10",
-                    Values.parameters("source", source, "target", target)
+                    """
+                    MATCH (source:Word {name: $source}), (target:Word {name: $target})
+                    CALL gds.shortestPath.yens.stream('myGraph', {sourceNode: source, targetNode: target, k: $k})
+                    YIELD index, nodeIds
+                    WHERE size(nodeIds) - 1 <= $maxLength
+                    RETURN [nodeId IN nodeIds | gds.util.asNode(nodeId).name] AS path
+                    ORDER BY index
+                    """,
+                    Values.parameters("source", source, "target", target, "k", k, "maxLength", maxLength)
             );
 
             while (result.hasNext()) {
@@ -55,7 +164,7 @@ public class GraphAnalyzer implements GraphAnalysis, AutoCloseable {
                 allPaths.add(path);
             }
         } catch (Exception e) {
-            System.err.println("Error in findAllPaths: " + e.getMessage());
+            throw new GraphWordException("Failed to find paths: " + e.getMessage(), e);
         }
         return allPaths;
     }
@@ -64,6 +173,7 @@ public class GraphAnalyzer implements GraphAnalysis, AutoCloseable {
     @Override
     public int findMaximumDistance() {
         try (Session session = driver.session()) {
+            awaitProjection();
             var result = session.run(
                     "CALL gds.allShortestPaths.stream('myGraph') " +
                             "YIELD sourceNodeId, targetNodeId, distance " +
@@ -75,55 +185,134 @@ public class GraphAnalyzer implements GraphAnalysis, AutoCloseable {
                 return record.get("maxDistance").asInt();
             }
         } catch (Exception e) {
-            System.err.println("Error in findMaximumDistance: " + e.getMessage());
+            throw new GraphWordException("Failed to find the maximum distance: " + e.getMessage(), e);
         }
         return -1;
     }
 
+    @Override
+    public MaximumDistance findMaximumDistanceWithEndpoints() {
+        try (Session session = driver.session()) {
+            awaitProjection();
+            var result = session.run(
+                    """
+                    CALL gds.allShortestPaths.stream('myGraph')
+                    YIELD sourceNodeId, targetNodeId, distance
+                    RETURN gds.util.asNode(sourceNodeId).name AS source,
+                           gds.util.asNode(targetNodeId).name AS target, distance
+                    ORDER BY distance DESC
+                    LIMIT 1
+                    """
+            );
+
+            if (result.hasNext()) {
+                org.neo4j.driver.Record record = result.next(); // Uso explícito de Record
+                return new MaximumDistance(record.get("distance").asNumber().intValue(),
+                        record.get("source").asString(), record.get("target").asString());
+            }
+        } catch (Exception e) {
+            throw new GraphWordException("Failed to find the maximum distance: " + e.getMessage(), e);
+        }
+        return new MaximumDistance(-1, null, null);
+    }
+
     // terminada
     @Override
     public List<List<String>> findCommunities() {
         List<List<String>> communities = new ArrayList<>();
+        forEachCommunity(communities::add);
+        return communities;
+    }
+
+    // Each community is handed over as soon as its row is read from the cursor. A failure partway through
+    // is thrown, so a streamed response is not closed as if the list were complete
+    @Override
+    public void forEachCommunity(Consumer<List<String>> consumer) {
         try (Session session = driver.session()) {
-            var result = session.run(
-                    "CALL gds.louvain.stream('myGraph') " +
-                            "YIELD communityId, nodeId " +
-                            "MATCH (n:Word) WHERE id(n) = nodeId " +
-                            "RETURN communityId, collect(n.name) AS members " +
-                            "ORDER BY communityId"
-            );
+            Result result;
+            if (readsCommunityIds && communityIdsCurrent(session)) {
+                result = session.run(
+                        "MATCH (w:Word) WHERE w.communityId IS NOT NULL " +
+                                "RETURN w.communityId AS communityId, collect(w.name) AS members " +
+                                "ORDER BY communityId"
+                );
+            } else {
+                awaitProjection();
+                result = session.run(
+                        "CALL gds.louvain.stream('myGraph') " +
+                                "YIELD communityId, nodeId " +
+                                "RETURN communityId, collect(gds.util.asNode(nodeId).name) AS members " +
+                                "ORDER BY communityId"
+                );
+            }
 
             while (result.hasNext()) {
                 org.neo4j.driver.Record record = result.next(); // Uso explícito de Record
-                communities.add(record.get("members").asList(Value::asString));
+                consumer.accept(record.get("members").asList(Value::asString));
             }
+        } catch (UncheckedIOException e) {
+            // The consumer could not write the row; let the caller see it
+            throw e;
         } catch (Exception e) {
-            System.err.println("Error in findCommunities: " + e.getMessage());
+            throw new GraphWordException("Failed to find communities: " + e.getMessage(), e);
         }
-        return communities;
     }
 
     // terminada
     @Override
     public List<String> findIsolatedNodes() {
         List<String> isolatedNodes = new ArrayList<>();
+        forEachIsolatedNode(isolatedNodes::add);
+        return isolatedNodes;
+    }
+
+    @Override
+    public void forEachIsolatedNode(Consumer<String> consumer) {
         try (Session session = driver.session()) {
             var result = session.run(
                     "MATCH (w:Word) WHERE NOT (w)-[]-() RETURN w.name AS name");
             while (result.hasNext()) {
                 org.neo4j.driver.Record record = result.next(); // Uso explícito de Record
-                isolatedNodes.add(record.get("name").asString());
+                consumer.accept(record.get("name").asString());
             }
+        } catch (UncheckedIOException e) {
+            // The consumer could not write the row; let the caller see it
+            throw e;
         } catch (Exception e) {
-            System.err.println("Error in findIsolatedNodes: " + e.getMessage());
+            throw new GraphWordException("Failed to find isolated nodes: " + e.getMessage(), e);
         }
-        return isolatedNodes;
+    }
+
+    @Override
+    public Map<Integer, Integer> findComponentSizes() {
+        Map<Integer, Integer> componentSizes = new LinkedHashMap<>();
+        try (Session session = driver.session()) {
+            awaitProjection();
+            var result = session.run(
+                    """
+                    CALL gds.wcc.stream('myGraph')
+                    YIELD componentId
+                    WITH componentId, count(*) AS size
+                    RETURN size, count(*) AS components
+                    ORDER BY size DESC
+                    """
+            );
+
+            while (result.hasNext()) {
+                org.neo4j.driver.Record record = result.next(); // Uso explícito de Record
+                componentSizes.put(record.get("size").asInt(), record.get("components").asInt());
+            }
+        } catch (Exception e) {
+            throw new GraphWordException("Failed to find component sizes: " + e.getMessage(), e);
+        }
+        return componentSizes;
     }
 
     @Override
     public List<String> findHighConnectivityNodes(int minDegree) {
         List<String> highConnectivityNodes = new ArrayList<>();
         try (Session session = driver.session()) {
+            awaitProjection();
             var result = session.run(
                     """
                     CALL gds.degree.stream('myGraph')
@@ -141,7 +330,7 @@ public class GraphAnalyzer implements GraphAnalysis, AutoCloseable {
                 highConnectivityNodes.add(record.get("name").asString());
             }
         } catch (Exception e) {
-            System.err.println("Error in findHighConnectivityNodes: " + e.getMessage());
+            throw new GraphWordException("Failed to find high-connectivity nodes: " + e.getMessage(), e);
         }
         return highConnectivityNodes;
     }
@@ -165,8 +354,7 @@ public class GraphAnalyzer implements GraphAnalysis, AutoCloseable {
                 nodes.add(record.get("name").asString());
             }
         } catch (Exception e) {
-            System.err.println("Error in findNodesByDegree: " + e.getMessage());
-            e.printStackTrace();
+            throw new GraphWordException("Failed to find nodes by degree: " + e.getMessage(), e);
         }
 
         if (nodes.isEmpty()) {
@@ -176,8 +364,52 @@ public class GraphAnalyzer implements GraphAnalysis, AutoCloseable {
         return nodes;
     }
 
+    @Override
+    public Map<Integer, Integer> findDegreeHistogram() {
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        try (Session session = driver.session()) {
+            var result = session.run(
+                    """
+                    MATCH (n:Word)
+                    OPTIONAL MATCH (n)-[r:CONNECTED]-()
+                    WITH n, count(r) AS degree
+                    RETURN degree, count(n) AS nodes
+                    ORDER BY degree
+                    """
+            );
+
+            while (result.hasNext()) {
+                org.neo4j.driver.Record record = result.next(); // Uso explícito de Record
+                histogram.put(record.get("degree").asInt(), record.get("nodes").asInt());
+            }
+        } catch (Exception e) {
+            throw new GraphWordException("Failed to compute the degree histogram: " + e.getMessage(), e);
+        }
+        return histogram;
+    }
+
+    // The stored ids are current while the counts recorded with them match the count store
+    private boolean communityIdsCurrent(Session session) {
+        var marker = session.run("MATCH (m:CommunityAssignment) RETURN m.wordCount AS wordCount, m.edgeCount AS edgeCount");
+        if (!marker.hasNext()) {
+            return false;
+        }
+        org.neo4j.driver.Record record = marker.next(); // Uso explícito de Record
+        GraphSnapshot.Stamp recorded = new GraphSnapshot.Stamp(
+                record.get("wordCount").asLong(), record.get("edgeCount").asLong());
+        return recorded.equals(Neo4jGraphLoader.stamp(session));
+    }
+
+    // GDS procedures read the in-memory projection, which may still be waiting for a refresh
+    private void awaitProjection() {
+        if (projectionManager != null) {
+            projectionManager.beforeRead();
+        }
+    }
+
     @Override
     public void close() {
+        shortestPathExecutor.shutdown();
         driver.close();
     }
 }
@@ -0,0 +1,35 @@
+package storage;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Notified by a {@link GraphManipulation} after its writes are committed, so in-process views of the
+ * graph can follow ingestion without reading it back from Neo4j. The same word or edge may be reported
+ * more than once.
+ */
+public interface GraphChangeListener {
+
+    void wordsInserted(Collection<String> words);
+
+    /**
+     * @param pairs undirected edges, each given as a list with its two words
+     */
+    void wordsConnected(Collection<List<String>> pairs);
+
+    /**
+     * Number of edges a committed write created. Reported to every listener, including the ones that
+     * do not need the pairs.
+     */
+    default void edgesCreated(int count) {
+    }
+
+    /**
+     * Whether the listener needs the pairs passed to {@link #wordsConnected}. When no listener needs
+     * them, writes that would have to read the matched pairs back from Neo4j only report
+     * {@link #edgesCreated}.
+     */
+    default boolean needsPairs() {
+        return true;
+    }
+}
@@ -1,5 +1,8 @@
 package storage;
 
+import engine.GraphSnapshot;
+
+import java.util.Map;
 import java.util.Set;
 
 public interface GraphManipulation {
@@ -9,6 +12,14 @@ public interface GraphManipulation {
 
     void connectWithExistingWords(Set<String> words);
 
+    void addGraphChangeListener(GraphChangeListener listener);
+
+    /**
+     * Stores each word's community as its {@code communityId} property, then records the word and edge
+     * counts the assignment was computed for, so readers can tell whether it is still current.
+     */
+    void writeCommunityIds(Map<String, Integer> communityIds, GraphSnapshot.Stamp stamp);
+
     void close();
 }
 
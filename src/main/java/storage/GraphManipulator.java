@@ -1,29 +1,98 @@
 package storage;
 
+import engine.GraphSnapshot;
 import org.neo4j.driver.*;
 import utils.GraphWordException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class GraphManipulator implements GraphManipulation, AutoCloseable {
 
+    public static final int DEFAULT_INSERT_BATCH_SIZE = 1000;
+    private static final int PAIR_BATCH_SIZE = 1000;
+    private static final int CANDIDATE_BATCH_SIZE = 200;
+
+    private static final String INSERT_WORDS_QUERY = "UNWIND $words AS word MERGE (w:Word {name: word})";
+
+    private static final String CONNECT_PAIRS_QUERY = """
+            UNWIND $pairs AS pair
+            MERGE (w1:Word {name: pair[0]})
+            MERGE (w2:Word {name: pair[1]})
+            MERGE (w1)-[:CONNECTED]-(w2)
+            """;
+
+    private static final String CONNECT_EXISTING_PAIRS_QUERY = """
+            UNWIND $pairs AS pair
+            MATCH (w1:Word {name: pair[0]}), (w2:Word {name: pair[1]})
+            MERGE (w1)-[:CONNECTED]-(w2)
+            """;
+
+    private static final String CONNECT_CANDIDATES_QUERY = """
+            UNWIND $entries AS entry
+            MATCH (w1:Word {name: entry.word})
+            UNWIND entry.candidates AS candidate
+            MATCH (w2:Word {name: candidate})
+            MERGE (w1)-[:CONNECTED]-(w2)
+            """;
+
+    // Used instead of CONNECT_CANDIDATES_QUERY when listeners need to know which pairs matched
+    private static final String CONNECT_CANDIDATES_RETURNING_QUERY = CONNECT_CANDIDATES_QUERY +
+            "RETURN w1.name AS word, w2.name AS neighbor";
+
+    private static final String WRITE_COMMUNITIES_QUERY = """
+            UNWIND $rows AS row
+            MATCH (w:Word {name: row.name})
+            SET w.communityId = row.communityId
+            """;
+
+    // Written after the ids and removed before, so a half-written assignment never looks current
+    private static final String DELETE_COMMUNITY_MARKER_QUERY = "MATCH (m:CommunityAssignment) DELETE m";
+    private static final String CREATE_COMMUNITY_MARKER_QUERY =
+            "CREATE (:CommunityAssignment {wordCount: $wordCount, edgeCount: $edgeCount})";
+
     private final Driver driver;
+    private final ConnectMode connectMode;
+    private final int insertBatchSize;
+    private final List<GraphChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Words whose edges are stored; a word joins only once the writes of its batch have succeeded
+    private WordNeighborIndex neighborIndex;
+    // New words of the batches being connected right now, so concurrent batches see each other
+    private final List<WordNeighborIndex> connectingBatches = new ArrayList<>();
 
     public GraphManipulator(String uri, String user, String password) {
-        this.driver = GraphDatabase.driver(uri, AuthTokens.basic(user, password));
+        this(uri, user, password, ConnectMode.NEIGHBOR_INDEX, DEFAULT_INSERT_BATCH_SIZE);
+    }
+
+    public GraphManipulator(String uri, String user, String password, ConnectMode connectMode, int insertBatchSize) {
+        this(GraphDatabase.driver(uri, AuthTokens.basic(user, password)), connectMode, insertBatchSize);
     }
 
     public GraphManipulator(Driver driver) { // Constructor adicional para inyección de Driver
+        this(driver, ConnectMode.NEIGHBOR_INDEX, DEFAULT_INSERT_BATCH_SIZE);
+    }
+
+    public GraphManipulator(Driver driver, ConnectMode connectMode) {
+        this(driver, connectMode, DEFAULT_INSERT_BATCH_SIZE);
+    }
+
+    public GraphManipulator(Driver driver, ConnectMode connectMode, int insertBatchSize) {
+        if (insertBatchSize <= 0) {
+            throw new GraphWordException("Insert batch size must be positive: " + insertBatchSize);
+        }
         this.driver = driver;
+        this.connectMode = connectMode;
+        this.insertBatchSize = insertBatchSize;
     }
 
     @Override
     public void ensureGraphProjection(String graphName) {
         try (Session session = driver.session()) {
             session.run(
-                    "CALL gds.graph.drop($graphName)",
+                    "CALL gds.graph.drop($graphName, false)", // no falla si aún no existe
                     org.neo4j.driver.Values.parameters("graphName", graphName)
             );
             session.run(
@@ -38,13 +107,25 @@ public class GraphManipulator implements GraphManipulation, AutoCloseable {
 
     @Override
     public void insertWords(Set<String> words) {
+        List<String> wordList = new ArrayList<>(words);
         try (Session session = driver.session()) {
-            session.writeTransaction(tx -> {
-                for (String word : words) {
-                    tx.run("MERGE (w:Word {name: $word})", Values.parameters("word", word));
+            if (connectMode == ConnectMode.NEIGHBOR_INDEX) {
+                // Seeded before this process inserts anything, so every seeded word already has its edges
+                synchronized (this) {
+                    neighborIndex(session, Set.of());
                 }
-                return null;
-            });
+            }
+            // One transaction per chunk keeps the transaction state bounded on large books
+            for (int from = 0; from < wordList.size(); from += insertBatchSize) {
+                List<String> batch = wordList.subList(from, Math.min(from + insertBatchSize, wordList.size()));
+                session.writeTransaction(tx -> {
+                    tx.run(INSERT_WORDS_QUERY, Values.parameters("words", batch));
+                    return null;
+                });
+                for (GraphChangeListener listener : listeners) {
+                    listener.wordsInserted(batch);
+                }
+            }
         } catch (Exception e) {
             throw new GraphWordException("Failed to insert words: " + e.getMessage(), e);
         }
@@ -55,55 +136,199 @@ public class GraphManipulator implements GraphManipulation, AutoCloseable {
         try (Session session = driver.session()) {
             var result = session.run("MATCH (n) RETURN count(n) AS nodeCount");
             if (result.hasNext() && result.next().get("nodeCount").asInt() == 0) {
+                resetNeighborIndex();
                 connectWords(newWords);
                 return;
             }
 
-            for (String newWord : newWords) {
-                session.writeTransaction(tx -> {
-                    var queryResult = tx.run("""
-                            MATCH (existing:Word)
-                            WHERE apoc.text.levenshteinDistance(existing.name, $newWord) = 1
-                            RETURN existing.name AS existingWord
-                            """, Values.parameters("newWord", newWord));
-
-                    while (queryResult.hasNext()) {
-                        org.neo4j.driver.Record record = queryResult.next(); // Uso explícito de Record
-                        String existingWord = record.get("existingWord").asString();
-                        tx.run("""
-                                MATCH (w1:Word {name: $newWord}), (w2:Word {name: $existingWord})
-                                MERGE (w1)-[:CONNECTED]-(w2)
-                                """, Values.parameters("newWord", newWord, "existingWord", existingWord));
-                    }
-                    return null;
-                });
+            if (connectMode == ConnectMode.CANDIDATES) {
+                connectCandidates(session, newWords);
+                return;
             }
+
+            connectIndexed(session, newWords);
         } catch (Exception e) {
             throw new GraphWordException("Failed to connect with existing words: " + e.getMessage(), e);
         }
     }
 
-    public void connectWords(Set<String> words) {
-        List<String> wordList = new ArrayList<>(words);
-        try (Session session = driver.session()) {
-            for (int i = 0; i < wordList.size(); i++) {
-                for (int j = i + 1; j < wordList.size(); j++) {
-                    String word1 = wordList.get(i);
-                    String word2 = wordList.get(j);
-                    if (isOneLetterDifference(word1, word2)) {
-                        session.run("""
-                                MERGE (w1:Word {name: $word1})
-                                MERGE (w2:Word {name: $word2})
-                                MERGE (w1)-[:CONNECTED]-(w2)
-                                """, org.neo4j.driver.Values.parameters("word1", word1, "word2", word2));
+    // Pairs are computed under the lock against the stored words and the batches still being connected,
+    // so of two overlapping batches the later one always finds the pairs between them. The new words
+    // join the index only after their writes succeed; a failed batch leaves them out and a retry finds
+    // their neighbors again.
+    private void connectIndexed(Session session, Set<String> newWords) {
+        List<List<String>> pairs = new ArrayList<>();
+        WordNeighborIndex batch = new WordNeighborIndex();
+        synchronized (this) {
+            WordNeighborIndex index = neighborIndex(session, newWords);
+            for (String newWord : newWords) {
+                if (index.contains(newWord)) {
+                    continue;
+                }
+                for (String neighbor : index.neighborsOf(newWord)) {
+                    pairs.add(List.of(newWord, neighbor));
+                }
+                for (WordNeighborIndex other : connectingBatches) {
+                    for (String neighbor : other.neighborsOf(newWord)) {
+                        pairs.add(List.of(newWord, neighbor));
+                    }
+                }
+                for (String neighbor : batch.add(newWord)) {
+                    pairs.add(List.of(newWord, neighbor));
+                }
+            }
+            connectingBatches.add(batch);
+        }
+
+        boolean written = false;
+        try {
+            writePairs(session, CONNECT_EXISTING_PAIRS_QUERY, pairs);
+            written = true;
+        } finally {
+            synchronized (this) {
+                connectingBatches.remove(batch);
+                if (written && neighborIndex != null) {
+                    for (String newWord : newWords) {
+                        neighborIndex.add(newWord);
                     }
                 }
             }
+        }
+    }
+
+    public void connectWords(Set<String> words) {
+        try (Session session = driver.session()) {
+            writePairs(session, CONNECT_PAIRS_QUERY, WordNeighborIndex.connectedPairs(words));
         } catch (Exception e) {
             throw new GraphWordException("Failed to connect words: " + e.getMessage(), e);
         }
     }
 
+    // Sends the one-letter variants of each word and lets the name index tell which of them exist,
+    // creating the edges in the same round trip.
+    private void connectCandidates(Session session, Set<String> newWords) {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (String newWord : newWords) {
+            entries.add(Map.of("word", newWord, "candidates", oneLetterVariants(newWord)));
+            if (entries.size() == CANDIDATE_BATCH_SIZE) {
+                writeCandidates(session, entries);
+                entries = new ArrayList<>();
+            }
+        }
+        if (!entries.isEmpty()) {
+            writeCandidates(session, entries);
+        }
+    }
+
+    private void writeCandidates(Session session, List<Map<String, Object>> entries) {
+        if (listeners.stream().noneMatch(GraphChangeListener::needsPairs)) {
+            int created = session.writeTransaction(tx ->
+                    tx.run(CONNECT_CANDIDATES_QUERY, Values.parameters("entries", entries))
+                            .consume().counters().relationshipsCreated());
+            notifyConnected(List.of(), created);
+            return;
+        }
+
+        int[] created = new int[1];
+        List<List<String>> pairs = session.writeTransaction(tx -> {
+            Result result = tx.run(CONNECT_CANDIDATES_RETURNING_QUERY, Values.parameters("entries", entries));
+            List<List<String>> matched = result.list(
+                    record -> List.of(record.get("word").asString(), record.get("neighbor").asString()));
+            created[0] = result.consume().counters().relationshipsCreated();
+            return matched;
+        });
+        notifyConnected(pairs, created[0]);
+    }
+
+    // Seeds the resident index with the words already stored, leaving out the words being connected.
+    // Normally this runs before the first insert; words written later by other processes are not seen,
+    // so deployments with several writers use the candidates mode.
+    private WordNeighborIndex neighborIndex(Session session, Set<String> pendingWords) {
+        if (neighborIndex == null) {
+            WordNeighborIndex index = new WordNeighborIndex();
+            var result = session.run("MATCH (w:Word) RETURN w.name AS name");
+            while (result.hasNext()) {
+                String name = result.next().get("name").asString();
+                if (!pendingWords.contains(name)) {
+                    index.add(name);
+                }
+            }
+            neighborIndex = index;
+        }
+        return neighborIndex;
+    }
+
+    private synchronized void resetNeighborIndex() {
+        neighborIndex = null;
+    }
+
+    private void writePairs(Session session, String query, List<List<String>> pairs) {
+        for (int from = 0; from < pairs.size(); from += PAIR_BATCH_SIZE) {
+            List<List<String>> batch = pairs.subList(from, Math.min(from + PAIR_BATCH_SIZE, pairs.size()));
+            int created = session.writeTransaction(tx ->
+                    tx.run(query, Values.parameters("pairs", batch)).consume().counters().relationshipsCreated());
+            notifyConnected(batch, created);
+        }
+    }
+
+    private void notifyConnected(List<List<String>> pairs, int created) {
+        for (GraphChangeListener listener : listeners) {
+            if (!pairs.isEmpty() && listener.needsPairs()) {
+                listener.wordsConnected(pairs);
+            }
+            if (created > 0) {
+                listener.edgesCreated(created);
+            }
+        }
+    }
+
+    @Override
+    public void writeCommunityIds(Map<String, Integer> communityIds, GraphSnapshot.Stamp stamp) {
+        List<Map<String, Object>> rows = new ArrayList<>(communityIds.size());
+        communityIds.forEach((name, communityId) -> rows.add(Map.of("name", name, "communityId", communityId)));
+        try (Session session = driver.session()) {
+            session.writeTransaction(tx -> {
+                tx.run(DELETE_COMMUNITY_MARKER_QUERY);
+                return null;
+            });
+            for (int from = 0; from < rows.size(); from += insertBatchSize) {
+                List<Map<String, Object>> batch = rows.subList(from, Math.min(from + insertBatchSize, rows.size()));
+                session.writeTransaction(tx -> {
+                    tx.run(WRITE_COMMUNITIES_QUERY, Values.parameters("rows", batch));
+                    return null;
+                });
+            }
+            session.writeTransaction(tx -> {
+                tx.run(CREATE_COMMUNITY_MARKER_QUERY,
+                        Values.parameters("wordCount", stamp.getWordCount(), "edgeCount", stamp.getEdgeCount()));
+                return null;
+            });
+        } catch (Exception e) {
+            throw new GraphWordException("Failed to write community ids: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void addGraphChangeListener(GraphChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    protected List<String> oneLetterVariants(String word) {
+        List<String> variants = new ArrayList<>(word.length() * 25);
+        char[] chars = word.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            char original = chars[i];
+            for (char letter = 'a'; letter <= 'z'; letter++) {
+                if (letter != original) {
+                    chars[i] = letter;
+                    variants.add(new String(chars));
+                }
+            }
+            chars[i] = original;
+        }
+        return variants;
+    }
+
     protected boolean isOneLetterDifference(String word1, String word2) {
         if (word1.length() != word2.length()) return false;
         int diffCount = 0;
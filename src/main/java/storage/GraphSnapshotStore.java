@@ -0,0 +1,116 @@
+package storage;
+
+import engine.CsrGraph;
+import engine.GraphSnapshot;
+import utils.GraphWordException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the in-memory graph in a {@link GraphSnapshot} file, so a restart can skip reading the graph
+ * back from Neo4j. The snapshot is written after ingestion together with the stamp of the source at that
+ * moment; at load time the stamp is compared with the current one, and a snapshot that missed writes
+ * (for instance because the process stopped between a commit and the next save) is ignored.
+ */
+public class GraphSnapshotStore {
+
+    private static final int REPLAY_BATCH_SIZE = 10_000;
+
+    private final Path snapshotPath;
+    private final Supplier<GraphSnapshot.Stamp> sourceStamp;
+
+    public GraphSnapshotStore(Path snapshotPath) {
+        this(snapshotPath, null);
+    }
+
+    /**
+     * @param sourceStamp reads the stamp of the store the graph comes from; when null, snapshots are
+     *                    trusted without any check
+     */
+    public GraphSnapshotStore(Path snapshotPath, Supplier<GraphSnapshot.Stamp> sourceStamp) {
+        this.snapshotPath = snapshotPath;
+        this.sourceStamp = sourceStamp;
+    }
+
+    /**
+     * Returns the stored graph, or {@code null} when no snapshot has been written yet or when it does
+     * not match the current source.
+     */
+    public CsrGraph load() {
+        if (!Files.exists(snapshotPath)) {
+            return null;
+        }
+        try {
+            if (sourceStamp != null) {
+                GraphSnapshot.Stamp stored = GraphSnapshot.readStamp(snapshotPath);
+                GraphSnapshot.Stamp current = sourceStamp.get();
+                if (!current.equals(stored)) {
+                    System.out.println("Graph snapshot is out of date (" + stored + " stored, " + current
+                            + " in the source), ignoring it");
+                    return null;
+                }
+            }
+            return GraphSnapshot.read(snapshotPath);
+        } catch (IOException e) {
+            throw new GraphWordException("Failed to read graph snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    public void save(CsrGraph graph) {
+        GraphSnapshot.Stamp stamp = sourceStamp != null ? sourceStamp.get() : null;
+        try {
+            GraphSnapshot.write(graph, stamp, snapshotPath);
+        } catch (IOException e) {
+            throw new GraphWordException("Failed to write graph snapshot: " + snapshotPath, e);
+        }
+    }
+
+    public Path getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    /**
+     * Reports every word and edge of the graph to the listeners, in the same batches as
+     * {@link Neo4jGraphLoader#load}, so other views can be built from a snapshot as well.
+     */
+    public static void replay(CsrGraph graph, GraphChangeListener... listeners) {
+        if (listeners.length == 0) {
+            return;
+        }
+        List<String> words = new ArrayList<>();
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            words.add(graph.wordOf(node));
+            if (words.size() == REPLAY_BATCH_SIZE || node == graph.nodeCount() - 1) {
+                for (GraphChangeListener listener : listeners) {
+                    listener.wordsInserted(words);
+                }
+                words = new ArrayList<>();
+            }
+        }
+
+        List<List<String>> pairs = new ArrayList<>();
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            for (int i = graph.neighborStart(node); i < graph.neighborEnd(node); i++) {
+                if (node < graph.target(i)) {
+                    pairs.add(List.of(graph.wordOf(node), graph.wordOf(graph.target(i))));
+                }
+                if (pairs.size() == REPLAY_BATCH_SIZE) {
+                    for (GraphChangeListener listener : listeners) {
+                        listener.wordsConnected(pairs);
+                    }
+                    pairs = new ArrayList<>();
+                }
+            }
+        }
+        if (!pairs.isEmpty()) {
+            for (GraphChangeListener listener : listeners) {
+                listener.wordsConnected(pairs);
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package storage;
+
+import engine.Bfs;
+import engine.BidirectionalBfs;
+import engine.CsrGraph;
+import engine.Diameter;
+import engine.DiameterBounds;
+import engine.DiameterEngine;
+import engine.KShortestPaths;
+import engine.LouvainEngine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * {@link GraphAnalysis} answered from an in-process {@link CsrGraph} instead of Neo4j. The graph is
+ * loaded once (see {@link Neo4jGraphLoader}) and then kept up to date as a {@link GraphChangeListener}
+ * of the ingestion; changes are buffered and folded into a new immutable graph before the next query.
+ */
+public class InMemoryGraphAnalyzer implements GraphAnalysis, GraphChangeListener {
+
+    private volatile CsrGraph graph;
+    private final List<String> pendingWords = new ArrayList<>();
+    private final List<List<String>> pendingPairs = new ArrayList<>();
+
+    // Each thread keeps its search buffers until the graph they were sized for is replaced
+    private final ThreadLocal<BidirectionalBfs> searches = new ThreadLocal<>();
+    private final ThreadLocal<KShortestPaths> pathSearches = new ThreadLocal<>();
+    private final ThreadLocal<Bfs> trees = new ThreadLocal<>();
+    // Whole-graph results, valid while the graph they were computed on is current
+    private volatile GraphResult<Diameter> cachedDiameter;
+    private volatile GraphResult<List<List<String>>> cachedCommunities;
+
+    private static class GraphResult<T> {
+        final CsrGraph graph;
+        final T value;
+
+        GraphResult(CsrGraph graph, T value) {
+            this.graph = graph;
+            this.value = value;
+        }
+    }
+
+    public InMemoryGraphAnalyzer() {
+        this(CsrGraph.builder().build());
+    }
+
+    public InMemoryGraphAnalyzer(CsrGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public synchronized void wordsInserted(Collection<String> words) {
+        pendingWords.addAll(words);
+    }
+
+    @Override
+    public synchronized void wordsConnected(Collection<List<String>> pairs) {
+        pendingPairs.addAll(pairs);
+    }
+
+    /**
+     * Returns the current graph, first applying the changes received since the last call.
+     */
+    public CsrGraph graph() {
+        synchronized (this) {
+            if (!pendingWords.isEmpty() || !pendingPairs.isEmpty()) {
+                CsrGraph.Builder builder = CsrGraph.builder(graph);
+                pendingWords.forEach(builder::addWord);
+                pendingPairs.forEach(pair -> builder.addEdge(pair.get(0), pair.get(1)));
+                pendingWords.clear();
+                pendingPairs.clear();
+                graph = builder.build();
+            }
+        }
+        return graph;
+    }
+
+    @Override
+    public List<String> findShortestPath(String source, String target) {
+        CsrGraph current = graph();
+        int from = current.idOf(source);
+        int to = current.idOf(target);
+        // Like the Neo4j engine, a word has no path to itself
+        if (from < 0 || to < 0 || from == to) {
+            return new ArrayList<>();
+        }
+        return words(current, search(current).shortestPath(from, to));
+    }
+
+    // Pairs are grouped by source and the sources searched in parallel: a source with several targets
+    // runs one BFS and reads every path from its tree, a single pair uses the bidirectional search
+    @Override
+    public List<List<String>> findShortestPaths(List<List<String>> pairs) {
+        CsrGraph current = graph();
+        // Each position is set by a single task; setting elements does not resize the list
+        List<List<String>> paths = new ArrayList<>(Collections.nCopies(pairs.size(), null));
+        Map<Integer, List<Integer>> positionsBySource = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            int from = current.idOf(pairs.get(i).get(0));
+            int to = current.idOf(pairs.get(i).get(1));
+            if (from < 0 || to < 0 || from == to) {
+                paths.set(i, new ArrayList<>());
+            } else {
+                positionsBySource.computeIfAbsent(from, source -> new ArrayList<>()).add(i);
+            }
+        }
+
+        positionsBySource.entrySet().parallelStream().forEach(entry -> {
+            int from = entry.getKey();
+            List<Integer> positions = entry.getValue();
+            if (positions.size() == 1) {
+                int position = positions.get(0);
+                int to = current.idOf(pairs.get(position).get(1));
+                paths.set(position, words(current, search(current).shortestPath(from, to)));
+                return;
+            }
+            Bfs tree = tree(current);
+            tree.run(from);
+            for (int position : positions) {
+                paths.set(position, words(current, tree.pathTo(current.idOf(pairs.get(position).get(1)))));
+            }
+        });
+        return paths;
+    }
+
+    // Louvain on the in-process graph, computed once per graph
+    @Override
+    public List<List<String>> findCommunities() {
+        CsrGraph current = graph();
+        GraphResult<List<List<String>>> cached = cachedCommunities;
+        if (cached != null && cached.graph == current) {
+            return cached.value;
+        }
+
+        int[] assignment = new LouvainEngine(current).run().getCommunities();
+        Map<Integer, List<String>> communities = new TreeMap<>();
+        for (int node = 0; node < current.nodeCount(); node++) {
+            communities.computeIfAbsent(assignment[node], id -> new ArrayList<>()).add(current.wordOf(node));
+        }
+        List<List<String>> result = List.copyOf(communities.values());
+        cachedCommunities = new GraphResult<>(current, result);
+        return result;
+    }
+
+    @Override
+    public List<String> findIsolatedNodes() {
+        List<String> isolatedNodes = new ArrayList<>();
+        forEachIsolatedNode(isolatedNodes::add);
+        return isolatedNodes;
+    }
+
+    @Override
+    public void forEachIsolatedNode(Consumer<String> consumer) {
+        CsrGraph current = graph();
+        for (int node = 0; node < current.nodeCount(); node++) {
+            if (current.degree(node) == 0) {
+                consumer.accept(current.wordOf(node));
+            }
+        }
+    }
+
+    @Override
+    public List<List<String>> findAllPaths(String source, String target, int k, int maxLength) {
+        CsrGraph current = graph();
+        int from = current.idOf(source);
+        int to = current.idOf(target);
+        List<List<String>> allPaths = new ArrayList<>();
+        // Like the Neo4j engine, a word has no path to itself
+        if (from < 0 || to < 0 || from == to) {
+            return allPaths;
+        }
+        for (int[] path : pathSearch(current).find(from, to, k, maxLength)) {
+            allPaths.add(words(current, path));
+        }
+        return allPaths;
+    }
+
+    @Override
+    public int findMaximumDistance() {
+        return findMaximumDistanceWithEndpoints().getMaximumDistance();
+    }
+
+    @Override
+    public MaximumDistance findMaximumDistanceWithEndpoints() {
+        CsrGraph current = graph();
+        Diameter diameter = diameter(current);
+        if (diameter == null) {
+            return new MaximumDistance(-1, null, null);
+        }
+        return new MaximumDistance(diameter.getDistance(),
+                current.wordOf(diameter.getSource()), current.wordOf(diameter.getTarget()));
+    }
+
+    @Override
+    public MaximumDistance estimateMaximumDistance(long budgetMillis) {
+        CsrGraph current = graph();
+        GraphResult<Diameter> cached = cachedDiameter;
+        if (cached != null && cached.graph == current) {
+            Diameter exact = cached.value;
+            if (exact == null) {
+                // An empty graph has no diameter
+                return MaximumDistance.approximate(-1, -1, null, null, 0);
+            }
+            return MaximumDistance.approximate(exact.getDistance(), exact.getDistance(),
+                    current.wordOf(exact.getSource()), current.wordOf(exact.getTarget()), 0);
+        }
+
+        DiameterBounds bounds = new DiameterEngine(current).estimate(budgetMillis);
+        if (bounds == null) {
+            return MaximumDistance.approximate(-1, -1, null, null, 0);
+        }
+        if (bounds.isExact()) {
+            cachedDiameter = new GraphResult<>(current,
+                    new Diameter(bounds.getLowerBound(), bounds.getSource(), bounds.getTarget()));
+        }
+        return MaximumDistance.approximate(bounds.getLowerBound(), bounds.getUpperBound(),
+                current.wordOf(bounds.getSource()), current.wordOf(bounds.getTarget()), bounds.getSourcesUsed());
+    }
+
+    @Override
+    public Map<Integer, Integer> findComponentSizes() {
+        CsrGraph current = graph();
+        int[] sizes = new int[current.nodeCount()];
+        for (int node = 0; node < current.nodeCount(); node++) {
+            sizes[current.componentOf(node)]++;
+        }
+        TreeMap<Integer, Integer> counts = new TreeMap<>(Comparator.reverseOrder());
+        for (int size : sizes) {
+            if (size > 0) {
+                counts.merge(size, 1, Integer::sum);
+            }
+        }
+        return new LinkedHashMap<>(counts);
+    }
+
+    @Override
+    public List<String> findHighConnectivityNodes(int minDegree) {
+        CsrGraph current = graph();
+        return IntStream.range(0, current.nodeCount())
+                .filter(node -> current.degree(node) >= minDegree)
+                .boxed()
+                .sorted(Comparator.comparingInt(current::degree).reversed())
+                .map(current::wordOf)
+                .toList();
+    }
+
+    @Override
+    public List<String> findNodesByDegree(int degree) {
+        CsrGraph current = graph();
+        List<String> nodes = new ArrayList<>();
+        for (int node = 0; node < current.nodeCount(); node++) {
+            if (current.degree(node) == degree) {
+                nodes.add(current.wordOf(node));
+            }
+        }
+
+        if (nodes.isEmpty()) {
+            return List.of("Error: No nodes found with the specified degree.");
+        }
+
+        return nodes;
+    }
+
+    @Override
+    public Map<Integer, Integer> findDegreeHistogram() {
+        CsrGraph current = graph();
+        TreeMap<Integer, Integer> histogram = new TreeMap<>();
+        for (int node = 0; node < current.nodeCount(); node++) {
+            histogram.merge(current.degree(node), 1, Integer::sum);
+        }
+        return new LinkedHashMap<>(histogram);
+    }
+
+    @Override
+    public void close() {
+        // Nada que liberar: el grafo vive en memoria
+    }
+
+    private BidirectionalBfs search(CsrGraph current) {
+        BidirectionalBfs search = searches.get();
+        if (search == null || search.getGraph() != current) {
+            search = new BidirectionalBfs(current);
+            searches.set(search);
+        }
+        return search;
+    }
+
+    private Bfs tree(CsrGraph current) {
+        Bfs tree = trees.get();
+        if (tree == null || tree.getGraph() != current) {
+            tree = new Bfs(current);
+            trees.set(tree);
+        }
+        return tree;
+    }
+
+    private KShortestPaths pathSearch(CsrGraph current) {
+        KShortestPaths search = pathSearches.get();
+        if (search == null || search.getGraph() != current) {
+            search = new KShortestPaths(current);
+            pathSearches.set(search);
+        }
+        return search;
+    }
+
+    // The graph is immutable, so its diameter is computed at most once
+    private Diameter diameter(CsrGraph current) {
+        GraphResult<Diameter> cached = cachedDiameter;
+        if (cached != null && cached.graph == current) {
+            return cached.value;
+        }
+        Diameter diameter = new DiameterEngine(current).compute();
+        cachedDiameter = new GraphResult<>(current, diameter);
+        return diameter;
+    }
+
+    private static List<String> words(CsrGraph graph, int[] path) {
+        List<String> words = new ArrayList<>(path.length);
+        for (int node : path) {
+            words.add(graph.wordOf(node));
+        }
+        return words;
+    }
+}
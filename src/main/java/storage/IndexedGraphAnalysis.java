@@ -0,0 +1,135 @@
+package storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Decorates another {@link GraphAnalysis} with indexes maintained from the ingestion, answering the
+ * queries they cover without reaching the underlying engine. Path queries between words in different
+ * components return at once.
+ */
+public class IndexedGraphAnalysis implements GraphAnalysis {
+
+    private final GraphAnalysis delegate;
+    private final ComponentIndex componentIndex;
+    private final DegreeIndex degreeIndex;
+
+    public IndexedGraphAnalysis(GraphAnalysis delegate, ComponentIndex componentIndex, DegreeIndex degreeIndex) {
+        this.delegate = delegate;
+        this.componentIndex = componentIndex;
+        this.degreeIndex = degreeIndex;
+    }
+
+    public GraphAnalysis getDelegate() {
+        return delegate;
+    }
+
+    public ComponentIndex getComponentIndex() {
+        return componentIndex;
+    }
+
+    public DegreeIndex getDegreeIndex() {
+        return degreeIndex;
+    }
+
+    @Override
+    public List<String> findShortestPath(String source, String target) {
+        if (!componentIndex.connected(source, target)) {
+            return new ArrayList<>();
+        }
+        return delegate.findShortestPath(source, target);
+    }
+
+    @Override
+    public List<List<String>> findShortestPaths(List<List<String>> pairs) {
+        List<List<String>> paths = new ArrayList<>(pairs.size());
+        List<List<String>> reachable = new ArrayList<>();
+        for (List<String> pair : pairs) {
+            boolean connected = componentIndex.connected(pair.get(0), pair.get(1));
+            paths.add(connected ? null : new ArrayList<>());
+            if (connected) {
+                reachable.add(pair);
+            }
+        }
+        if (reachable.isEmpty()) {
+            return paths;
+        }
+
+        List<List<String>> found = delegate.findShortestPaths(reachable);
+        for (int i = 0, next = 0; i < paths.size(); i++) {
+            if (paths.get(i) == null) {
+                paths.set(i, found.get(next++));
+            }
+        }
+        return paths;
+    }
+
+    @Override
+    public List<List<String>> findCommunities() {
+        return delegate.findCommunities();
+    }
+
+    @Override
+    public void forEachCommunity(Consumer<List<String>> consumer) {
+        delegate.forEachCommunity(consumer);
+    }
+
+    @Override
+    public List<String> findIsolatedNodes() {
+        return componentIndex.isolatedWords();
+    }
+
+    @Override
+    public List<List<String>> findAllPaths(String source, String target, int k, int maxLength) {
+        if (!componentIndex.connected(source, target)) {
+            return new ArrayList<>();
+        }
+        return delegate.findAllPaths(source, target, k, maxLength);
+    }
+
+    @Override
+    public int findMaximumDistance() {
+        return delegate.findMaximumDistance();
+    }
+
+    @Override
+    public MaximumDistance findMaximumDistanceWithEndpoints() {
+        return delegate.findMaximumDistanceWithEndpoints();
+    }
+
+    @Override
+    public MaximumDistance estimateMaximumDistance(long budgetMillis) {
+        return delegate.estimateMaximumDistance(budgetMillis);
+    }
+
+    @Override
+    public Map<Integer, Integer> findComponentSizes() {
+        return componentIndex.componentSizes();
+    }
+
+    @Override
+    public List<String> findHighConnectivityNodes(int minDegree) {
+        return degreeIndex.wordsWithMinDegree(minDegree);
+    }
+
+    @Override
+    public List<String> findNodesByDegree(int degree) {
+        List<String> nodes = degreeIndex.wordsWithDegree(degree);
+        if (nodes.isEmpty()) {
+            return List.of("Error: No nodes found with the specified degree.");
+        }
+        return nodes;
+    }
+
+    @Override
+    public Map<Integer, Integer> findDegreeHistogram() {
+        return degreeIndex.histogram();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
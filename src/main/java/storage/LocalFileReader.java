@@ -1,29 +1,161 @@
 package storage;
 
-import java.io.BufferedReader;
+import utils.GraphWordException;
+
+import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
 
 public class LocalFileReader implements WordFileReader {
 
+    public static final long DEFAULT_PARALLEL_THRESHOLD = 64L * 1024 * 1024;
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private final long parallelThreshold;
+    private final int chunkSize;
+
+    public LocalFileReader() {
+        this(Long.MAX_VALUE, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param parallelThreshold files of at least this many bytes are memory-mapped and tokenized in parallel
+     * @param chunkSize         approximate number of bytes tokenized by each parallel task
+     */
+    public LocalFileReader(long parallelThreshold, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new GraphWordException("Chunk size must be positive: " + chunkSize);
+        }
+        this.parallelThreshold = parallelThreshold;
+        this.chunkSize = chunkSize;
+    }
+
     @Override
     public Set<String> extractWords(String filePath) {
+        if (new File(filePath).length() >= parallelThreshold) {
+            return extractWordsParallel(filePath);
+        }
+
         Set<String> words = new HashSet<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] tokens = line.split("\\s+");
-                for (String token : tokens) {
-                    if (token.matches("[a-zA-Z]+") && token.length() >= 3) {
-                        words.add(token.toLowerCase());
-                    }
-                }
+        try (Reader reader = new FileReader(filePath)) {
+            WordTokenizer tokenizer = new WordTokenizer(reader);
+            String word;
+            while ((word = tokenizer.nextWord()) != null) {
+                words.add(word);
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
         return words;
     }
-}
 
+    @Override
+    public Stream<Set<String>> streamWords(String filePath, int batchSize) {
+        try {
+            return new WordTokenizer(new FileReader(filePath)).batches(batchSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Memory-maps the file, splits it into chunks that end on whitespace and tokenizes the chunks on
+     * the common ForkJoin pool. Produces the same set as the sequential reader for ASCII-compatible files.
+     */
+    public Set<String> extractWordsParallel(String filePath) {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            List<long[]> chunks = splitOnWhitespace(channel);
+            if (chunks.isEmpty()) {
+                return new HashSet<>();
+            }
+            return ForkJoinPool.commonPool().invoke(new ChunkTask(channel, chunks, 0, chunks.size()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new HashSet<>();
+        }
+    }
+
+    // Returns [start, end) ranges of about chunkSize bytes; each boundary is moved forward to the next
+    // whitespace byte so that no word is split between two chunks
+    private List<long[]> splitOnWhitespace(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(start + chunkSize, size);
+            while (end < size) {
+                probe.clear();
+                int read = channel.read(probe, end);
+                int offset = 0;
+                while (offset < read && !WordTokenizer.isWhitespace(probe.get(offset))) {
+                    offset++;
+                }
+                end = Math.min(end + offset, size);
+                if (offset < read) {
+                    break;
+                }
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static class ChunkTask extends RecursiveTask<Set<String>> {
+        private final FileChannel channel;
+        private final List<long[]> chunks;
+        private final int from;
+        private final int to;
+
+        ChunkTask(FileChannel channel, List<long[]> chunks, int from, int to) {
+            this.channel = channel;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Set<String> compute() {
+            if (to - from == 1) {
+                long[] chunk = chunks.get(from);
+                Set<String> words = new HashSet<>();
+                try {
+                    MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+                    WordTokenizer.addWords(bytes, words);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return words;
+            }
+
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(channel, chunks, from, middle);
+            left.fork();
+            Set<String> right = new ChunkTask(channel, chunks, middle, to).compute();
+            Set<String> merged = left.join();
+
+            // Merge the smaller set into the larger one
+            if (merged.size() < right.size()) {
+                right.addAll(merged);
+                return right;
+            }
+            merged.addAll(right);
+            return merged;
+        }
+    }
+}
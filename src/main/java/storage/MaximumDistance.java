@@ -0,0 +1,63 @@
+package storage;
+
+/**
+ * Result of {@link GraphAnalysis#findMaximumDistanceWithEndpoints()}: the diameter of the graph and,
+ * when known, a pair of words at that distance. Approximate results also carry the interval that
+ * contains the diameter and the number of BFS sources used; {@code maximumDistance} is then the lower
+ * bound.
+ */
+public class MaximumDistance {
+
+    private final int maximumDistance;
+    private final String source;
+    private final String target;
+    private final Integer lowerBound;
+    private final Integer upperBound;
+    private final Long sourcesUsed;
+
+    public MaximumDistance(int maximumDistance, String source, String target) {
+        this(maximumDistance, source, target, null, null, null);
+    }
+
+    private MaximumDistance(int maximumDistance, String source, String target,
+                            Integer lowerBound, Integer upperBound, Long sourcesUsed) {
+        this.maximumDistance = maximumDistance;
+        this.source = source;
+        this.target = target;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.sourcesUsed = sourcesUsed;
+    }
+
+    public static MaximumDistance approximate(int lowerBound, int upperBound, String source, String target,
+                                              long sourcesUsed) {
+        return new MaximumDistance(lowerBound, source, target, lowerBound, upperBound, sourcesUsed);
+    }
+
+    public int getMaximumDistance() {
+        return maximumDistance;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * Lower bound of an approximate result, or {@code null} for an exact one.
+     */
+    public Integer getLowerBound() {
+        return lowerBound;
+    }
+
+    public Integer getUpperBound() {
+        return upperBound;
+    }
+
+    public Long getSourcesUsed() {
+        return sourcesUsed;
+    }
+}
@@ -0,0 +1,102 @@
+package storage;
+
+import engine.GraphSnapshot;
+import org.neo4j.driver.*;
+import utils.GraphWordException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads every word and edge stored in Neo4j and replays them to {@link GraphChangeListener}s,
+ * typically to build in-process views of the graph at startup. All listeners share a single scan.
+ */
+public class Neo4jGraphLoader implements AutoCloseable {
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final Driver driver;
+
+    public Neo4jGraphLoader(String uri, String user, String password) {
+        this.driver = GraphDatabase.driver(uri, AuthTokens.basic(user, password));
+    }
+
+    public Neo4jGraphLoader(Driver driver) { // Constructor adicional para inyección de Driver
+        this.driver = driver;
+    }
+
+    public void load(GraphChangeListener... listeners) {
+        GraphChangeListener listener = new GraphChangeListener() {
+            @Override
+            public void wordsInserted(Collection<String> words) {
+                for (GraphChangeListener target : listeners) {
+                    target.wordsInserted(words);
+                }
+            }
+
+            @Override
+            public void wordsConnected(Collection<List<String>> pairs) {
+                for (GraphChangeListener target : listeners) {
+                    target.wordsConnected(pairs);
+                }
+            }
+        };
+
+        try (Session session = driver.session()) {
+            List<String> words = new ArrayList<>();
+            var wordResult = session.run("MATCH (w:Word) RETURN w.name AS name");
+            while (wordResult.hasNext()) {
+                words.add(wordResult.next().get("name").asString());
+                if (words.size() == LOAD_BATCH_SIZE) {
+                    listener.wordsInserted(words);
+                    words = new ArrayList<>();
+                }
+            }
+            if (!words.isEmpty()) {
+                listener.wordsInserted(words);
+            }
+
+            // Relationships are stored with a direction, so following it reports each edge once
+            List<List<String>> pairs = new ArrayList<>();
+            var edgeResult = session.run(
+                    "MATCH (a:Word)-[:CONNECTED]->(b:Word) RETURN a.name AS source, b.name AS target");
+            while (edgeResult.hasNext()) {
+                org.neo4j.driver.Record record = edgeResult.next(); // Uso explícito de Record
+                pairs.add(List.of(record.get("source").asString(), record.get("target").asString()));
+                if (pairs.size() == LOAD_BATCH_SIZE) {
+                    listener.wordsConnected(pairs);
+                    pairs = new ArrayList<>();
+                }
+            }
+            if (!pairs.isEmpty()) {
+                listener.wordsConnected(pairs);
+            }
+        } catch (Exception e) {
+            throw new GraphWordException("Failed to load the graph from Neo4j: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Current number of stored words and edges. Both counts come from the Neo4j count store, so this is
+     * cheap enough to run at every startup.
+     */
+    public GraphSnapshot.Stamp stamp() {
+        try (Session session = driver.session()) {
+            return stamp(session);
+        } catch (Exception e) {
+            throw new GraphWordException("Failed to count the graph in Neo4j: " + e.getMessage(), e);
+        }
+    }
+
+    static GraphSnapshot.Stamp stamp(Session session) {
+        long words = session.run("MATCH (w:Word) RETURN count(w) AS count").single().get("count").asLong();
+        long edges = session.run("MATCH ()-[r:CONNECTED]->() RETURN count(r) AS count").single().get("count").asLong();
+        return new GraphSnapshot.Stamp(words, edges);
+    }
+
+    @Override
+    public void close() {
+        driver.close();
+    }
+}
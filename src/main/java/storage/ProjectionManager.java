@@ -0,0 +1,147 @@
+package storage;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the GDS projection in step with the stored graph without rebuilding it after every write.
+ * Writes only mark the projection stale; it is rebuilt once when the enclosing batch ends, after a
+ * quiet period without writes, or when a read asks for a fresh projection.
+ */
+public class ProjectionManager implements AutoCloseable {
+
+    public enum Freshness {
+        /** Reads wait until the projection includes every write made so far. */
+        STRICT,
+        /** Reads are served from the last projection while a refresh is pending. */
+        RELAXED
+    }
+
+    private final GraphManipulation graphManipulation;
+    private final String graphName;
+    private final long quietPeriodMillis;
+    private final Freshness freshness;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduledRefresh;
+    private int openBatches;
+    private boolean stale = true;
+    private volatile boolean projected;
+    private long refreshCount;
+
+    public ProjectionManager(GraphManipulation graphManipulation, String graphName) {
+        this(graphManipulation, graphName, 0, Freshness.STRICT);
+    }
+
+    /**
+     * @param quietPeriodMillis time without writes before a stale projection is rebuilt outside a batch;
+     *                          0 rebuilds it as soon as it is marked stale
+     */
+    public ProjectionManager(GraphManipulation graphManipulation, String graphName,
+                             long quietPeriodMillis, Freshness freshness) {
+        this.graphManipulation = graphManipulation;
+        this.graphName = graphName;
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.freshness = freshness;
+    }
+
+    /**
+     * Starts a batch of writes; the projection is not rebuilt until every open batch has ended.
+     */
+    public synchronized void beginBatch() {
+        openBatches++;
+    }
+
+    public synchronized void endBatch() {
+        if (openBatches > 0) {
+            openBatches--;
+        }
+        if (openBatches == 0 && stale) {
+            refresh();
+        }
+    }
+
+    /**
+     * Records that the stored graph changed since the last projection.
+     */
+    public synchronized void markStale() {
+        stale = true;
+        if (openBatches > 0) {
+            return;
+        }
+        if (quietPeriodMillis > 0) {
+            scheduleRefresh();
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Called before a query that reads the projection. Strict reads rebuild a stale projection first;
+     * relaxed reads only build it when none exists yet.
+     */
+    public void beforeRead() {
+        if (freshness == Freshness.STRICT || !projected) {
+            refreshIfStale();
+        }
+    }
+
+    public synchronized void refreshIfStale() {
+        if (stale) {
+            refresh();
+        }
+    }
+
+    public synchronized boolean isStale() {
+        return stale;
+    }
+
+    public synchronized long getRefreshCount() {
+        return refreshCount;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+
+    private void refresh() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+        graphManipulation.ensureGraphProjection(graphName);
+        stale = false;
+        projected = true;
+        refreshCount++;
+        System.out.println("Graph projection '" + graphName + "' refreshed.");
+    }
+
+    private void scheduleRefresh() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "projection-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        scheduledRefresh = scheduler.schedule(() -> {
+            try {
+                refreshIfStale();
+            } catch (RuntimeException e) {
+                System.err.println("Error refreshing graph projection: " + e.getMessage());
+            }
+        }, quietPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
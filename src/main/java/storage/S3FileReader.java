@@ -4,10 +4,11 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import storage.WordFileReader;
 
-import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public class S3FileReader implements WordFileReader {
 
@@ -20,24 +21,12 @@ public class S3FileReader implements WordFileReader {
     @Override
     public Set<String> extractWords(String s3Path) {
         Set<String> words = new HashSet<>();
-        String bucketName = s3Path.split("/")[0];
-        String key = s3Path.substring(s3Path.indexOf("/") + 1);
 
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(
-                        s3Client.getObject(GetObjectRequest.builder()
-                                .bucket(bucketName)
-                                .key(key)
-                                .build())))) {
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] tokens = line.split("\\s+");
-                for (String token : tokens) {
-                    if (token.matches("[a-zA-Z]+") && token.length() >= 3) { // Filtra palabras menores a 3 caracteres
-                        words.add(token.toLowerCase());
-                    }
-                }
+        try (Reader reader = openObject(s3Path)) {
+            WordTokenizer tokenizer = new WordTokenizer(reader); // Filtra palabras menores a 3 caracteres
+            String word;
+            while ((word = tokenizer.nextWord()) != null) {
+                words.add(word);
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -45,4 +34,20 @@ public class S3FileReader implements WordFileReader {
 
         return words;
     }
+
+    @Override
+    public Stream<Set<String>> streamWords(String s3Path, int batchSize) {
+        return new WordTokenizer(openObject(s3Path)).batches(batchSize);
+    }
+
+    private Reader openObject(String s3Path) {
+        String bucketName = s3Path.split("/")[0];
+        String key = s3Path.substring(s3Path.indexOf("/") + 1);
+
+        return new InputStreamReader(
+                s3Client.getObject(GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .build()));
+    }
 }
\ No newline at end of file
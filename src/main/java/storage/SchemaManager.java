@@ -0,0 +1,88 @@
+package storage;
+
+import org.neo4j.driver.*;
+import utils.GraphWordException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the constraints and indexes the graph queries rely on, so every
+ * {@code Word {name}} lookup is an index seek instead of a label scan.
+ */
+public class SchemaManager implements AutoCloseable {
+
+    public static final int DEFAULT_AWAIT_SECONDS = 300;
+
+    private static final String WORD_NAME_CONSTRAINT =
+            "CREATE CONSTRAINT word_name_unique IF NOT EXISTS FOR (w:Word) REQUIRE w.name IS UNIQUE";
+
+    // Used when the constraint cannot be created, e.g. duplicated names or an index created by hand
+    private static final String WORD_NAME_INDEX =
+            "CREATE INDEX word_name IF NOT EXISTS FOR (w:Word) ON (w.name)";
+
+    private final Driver driver;
+
+    public SchemaManager(String uri, String user, String password) {
+        this.driver = GraphDatabase.driver(uri, AuthTokens.basic(user, password));
+    }
+
+    public SchemaManager(Driver driver) { // Constructor adicional para inyección de Driver
+        this.driver = driver;
+    }
+
+    /**
+     * Idempotently creates the schema, waits until every index is online and returns its status.
+     */
+    public List<String> bootstrap(int awaitSeconds) {
+        try (Session session = driver.session()) {
+            try {
+                session.run(WORD_NAME_CONSTRAINT).consume();
+            } catch (Exception e) {
+                System.err.println("Could not create uniqueness constraint on :Word(name), using an index instead: "
+                        + e.getMessage());
+                session.run(WORD_NAME_INDEX).consume();
+            }
+
+            session.run("CALL db.awaitIndexes($timeout)", Values.parameters("timeout", awaitSeconds)).consume();
+            return indexStatus(session);
+        } catch (Exception e) {
+            throw new GraphWordException("Failed to bootstrap the graph schema: " + e.getMessage(), e);
+        }
+    }
+
+    public List<String> indexStatus() {
+        try (Session session = driver.session()) {
+            return indexStatus(session);
+        } catch (Exception e) {
+            throw new GraphWordException("Failed to read the graph schema: " + e.getMessage(), e);
+        }
+    }
+
+    private List<String> indexStatus(Session session) {
+        List<String> status = new ArrayList<>();
+        var result = session.run("""
+                SHOW INDEXES YIELD name, type, labelsOrTypes, properties, state, populationPercent, owningConstraint
+                WHERE 'Word' IN labelsOrTypes
+                RETURN name, type, properties, state, populationPercent, owningConstraint
+                """);
+        while (result.hasNext()) {
+            org.neo4j.driver.Record record = result.next(); // Uso explícito de Record
+            String owner = record.get("owningConstraint").isNull()
+                    ? "" : " (constraint " + record.get("owningConstraint").asString() + ")";
+            status.add(String.format("%s %s on :Word%s%s: %s %.1f%%",
+                    record.get("name").asString(),
+                    record.get("type").asString(),
+                    record.get("properties").asList(Value::asString),
+                    owner,
+                    record.get("state").asString(),
+                    record.get("populationPercent").asDouble()));
+        }
+        return status;
+    }
+
+    @Override
+    public void close() {
+        driver.close();
+    }
+}
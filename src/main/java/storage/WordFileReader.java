@@ -1,8 +1,26 @@
 package storage;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public interface WordFileReader {
     Set<String> extractWords(String pathOrKey);
+
+    /**
+     * Returns the words of the file in batches of at most {@code batchSize} distinct words, read lazily
+     * as the stream is consumed. A word may appear in more than one batch. The stream must be closed
+     * to release the underlying file.
+     */
+    default Stream<Set<String>> streamWords(String pathOrKey, int batchSize) {
+        // Readers without a streaming source fall back to splitting the full set
+        List<String> words = new ArrayList<>(extractWords(pathOrKey));
+        int batches = (words.size() + batchSize - 1) / batchSize;
+        return IntStream.range(0, batches)
+                .mapToObj(i -> new HashSet<>(words.subList(i * batchSize, Math.min((i + 1) * batchSize, words.size()))));
+    }
 }
 
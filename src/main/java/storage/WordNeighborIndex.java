@@ -0,0 +1,187 @@
+package storage;
+
+import engine.WordDictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-memory index that buckets every word under its masked patterns ("c_t", "_at", "ca_").
+ * Two words differ by exactly one letter if and only if they share one of these buckets,
+ * so neighbors are found by reading a handful of buckets instead of comparing every pair.
+ * Words live in a {@link WordDictionary} and each bucket is a chain of word ids keyed by a 64-bit
+ * hash of its pattern, so no pattern string is stored. Candidates are checked against the word
+ * itself, which makes hash collisions harmless.
+ */
+public class WordNeighborIndex {
+
+    private final WordDictionary words = new WordDictionary();
+
+    // Open addressing from pattern hash to its chain of entries (entry index + 1; 0 marks an empty slot)
+    private long[] bucketKeys = new long[1024];
+    private int[] bucketHeads = new int[1024];
+    private int[] bucketTails = new int[1024];
+    private int bucketCount;
+
+    // One entry per word and masked position, chained in insertion order
+    private int[] entryWords = new int[1024];
+    private int[] entryNext = new int[1024];
+    private int entryCount;
+
+    /**
+     * Adds a word to the index and returns the indexed words that differ from it by one letter.
+     * Returns an empty list if the word was already indexed.
+     */
+    public List<String> add(String word) {
+        List<String> neighbors = new ArrayList<>();
+        if (words.idOf(word) >= 0) {
+            return neighbors;
+        }
+
+        int id = words.add(word);
+        for (int i = 0; i < word.length(); i++) {
+            long key = patternHash(word, i);
+            int slot = slotOf(key);
+            collect(bucketHeads[slot], word, i, neighbors);
+            append(slot, key, id);
+        }
+        return neighbors;
+    }
+
+    /**
+     * Returns the indexed words that differ from the given word by one letter, without adding it.
+     */
+    public List<String> neighborsOf(String word) {
+        List<String> neighbors = new ArrayList<>();
+        for (int i = 0; i < word.length(); i++) {
+            collect(bucketHeads[slotOf(patternHash(word, i))], word, i, neighbors);
+        }
+        return neighbors;
+    }
+
+    public boolean contains(String word) {
+        return words.idOf(word) >= 0;
+    }
+
+    public int size() {
+        return words.size();
+    }
+
+    /**
+     * Returns every pair of words in the collection that differ by one letter. Each pair is
+     * emitted once, in near-linear time in the number of words plus the number of pairs.
+     */
+    public static List<List<String>> connectedPairs(Collection<String> words) {
+        WordNeighborIndex index = new WordNeighborIndex();
+        List<List<String>> pairs = new ArrayList<>();
+        for (String word : words) {
+            for (String neighbor : index.add(word)) {
+                pairs.add(List.of(neighbor, word));
+            }
+        }
+        return pairs;
+    }
+
+    private void collect(int head, String word, int position, List<String> neighbors) {
+        for (int entry = head; entry != 0; entry = entryNext[entry - 1]) {
+            int candidate = entryWords[entry - 1];
+            if (differsOnlyAt(candidate, word, position)) {
+                neighbors.add(words.wordOf(candidate));
+            }
+        }
+    }
+
+    private void append(int slot, long key, int id) {
+        if (entryCount == entryWords.length) {
+            entryWords = Arrays.copyOf(entryWords, entryCount * 2);
+            entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+        }
+        entryWords[entryCount] = id;
+        entryNext[entryCount] = 0;
+        entryCount++;
+
+        if (bucketHeads[slot] == 0) {
+            bucketKeys[slot] = key;
+            bucketHeads[slot] = entryCount;
+            bucketTails[slot] = entryCount;
+            bucketCount++;
+            if (bucketCount * 2 > bucketKeys.length) {
+                rehash();
+            }
+        } else {
+            entryNext[bucketTails[slot] - 1] = entryCount;
+            bucketTails[slot] = entryCount;
+        }
+    }
+
+    private int slotOf(long key) {
+        int mask = bucketKeys.length - 1;
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        while (bucketHeads[slot] != 0 && bucketKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = bucketKeys;
+        int[] oldHeads = bucketHeads;
+        int[] oldTails = bucketTails;
+        bucketKeys = new long[oldKeys.length * 2];
+        bucketHeads = new int[oldKeys.length * 2];
+        bucketTails = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldHeads[i] != 0) {
+                int slot = slotOf(oldKeys[i]);
+                bucketKeys[slot] = oldKeys[i];
+                bucketHeads[slot] = oldHeads[i];
+                bucketTails[slot] = oldTails[i];
+            }
+        }
+    }
+
+    // True when the stored word has the same length and equals the word everywhere except at the position
+    private boolean differsOnlyAt(int candidate, String word, int position) {
+        int length = word.length();
+        if (words.lengthOf(candidate) == length) {
+            boolean ascii = true;
+            for (int i = 0; i < length && ascii; i++) {
+                ascii = word.charAt(i) < 0x80;
+            }
+            if (ascii) {
+                for (int i = 0; i < length; i++) {
+                    if ((words.byteAt(candidate, i) == (byte) word.charAt(i)) == (i == position)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+
+        // Words outside ASCII are compared as strings, since their byte and char positions differ
+        String other = words.wordOf(candidate);
+        if (other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if ((other.charAt(i) == word.charAt(i)) == (i == position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over the characters with the masked one replaced, mixed with the length and position
+    private static long patternHash(String word, int position) {
+        long hash = 0xcbf29ce484222325L ^ word.length();
+        for (int i = 0; i < word.length(); i++) {
+            char c = i == position ? '\0' : word.charAt(i);
+            hash = (hash ^ c) * 0x100000001b3L;
+        }
+        hash ^= position;
+        hash *= 0x9e3779b97f4a7c15L;
+        return hash ^ (hash >>> 29);
+    }
+}
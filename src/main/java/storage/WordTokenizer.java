@@ -0,0 +1,180 @@
+package storage;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streaming tokenizer shared by the word readers. It scans characters from a reusable buffer,
+ * splits on the same whitespace as {@code \s+}, keeps only tokens made of ASCII letters with at
+ * least {@link #MIN_WORD_LENGTH} characters and lowercases them in place, so a {@code String} is
+ * only built for accepted words. Instances are not thread-safe.
+ */
+public class WordTokenizer {
+
+    public static final int MIN_WORD_LENGTH = 3;
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private char[] word = new char[32];
+
+    public WordTokenizer(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    public WordTokenizer(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Returns the next accepted word in lowercase, or {@code null} when the input is exhausted.
+     */
+    public String nextWord() throws IOException {
+        int length = 0;
+        boolean valid = true;
+        while (true) {
+            if (position == limit) {
+                limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+                position = 0;
+                if (limit == 0) {
+                    return valid && length >= MIN_WORD_LENGTH ? new String(word, 0, length) : null;
+                }
+            }
+
+            char c = buffer[position++];
+            if (isWhitespace(c)) {
+                if (valid && length >= MIN_WORD_LENGTH) {
+                    return new String(word, 0, length);
+                }
+                length = 0;
+                valid = true;
+            } else if (valid) {
+                if (c >= 'a' && c <= 'z') {
+                    length = append(c, length);
+                } else if (c >= 'A' && c <= 'Z') {
+                    length = append((char) (c + ('a' - 'A')), length);
+                } else {
+                    // The whole token is rejected, as with matches("[a-zA-Z]+")
+                    valid = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the remaining words as a lazy stream of batches holding at most {@code batchSize} distinct
+     * words. Closing the stream closes the reader.
+     */
+    public Stream<Set<String>> batches(int batchSize) {
+        Iterator<Set<String>> iterator = new Iterator<>() {
+            private Set<String> next;
+            private boolean fetched;
+
+            @Override
+            public boolean hasNext() {
+                if (!fetched) {
+                    next = readBatch();
+                    fetched = true;
+                }
+                return next != null;
+            }
+
+            @Override
+            public Set<String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                fetched = false;
+                return next;
+            }
+
+            private Set<String> readBatch() {
+                Set<String> batch = new HashSet<>();
+                try {
+                    String word;
+                    while (batch.size() < batchSize && (word = nextWord()) != null) {
+                        batch.add(word);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return batch.isEmpty() ? null : batch;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Adds the accepted words between the buffer's position and limit to the set, reading bytes
+     * without decoding them. The result matches the character tokenizer for UTF-8 and any other
+     * ASCII-compatible encoding, because multi-byte characters never contain ASCII letters or whitespace.
+     */
+    public static void addWords(ByteBuffer bytes, Set<String> words) {
+        byte[] word = new byte[32];
+        int length = 0;
+        boolean valid = true;
+        for (int i = bytes.position(), end = bytes.limit(); i <= end; i++) {
+            int b = i < end ? bytes.get(i) : ' ';
+            if (isWhitespace(b)) {
+                if (valid && length >= MIN_WORD_LENGTH) {
+                    words.add(new String(word, 0, length, StandardCharsets.US_ASCII));
+                }
+                length = 0;
+                valid = true;
+            } else if (valid) {
+                if (b >= 'A' && b <= 'Z') {
+                    b += 'a' - 'A';
+                } else if (b < 'a' || b > 'z') {
+                    valid = false;
+                    continue;
+                }
+                if (length == word.length) {
+                    byte[] grown = new byte[word.length * 2];
+                    System.arraycopy(word, 0, grown, 0, length);
+                    word = grown;
+                }
+                word[length++] = (byte) b;
+            }
+        }
+    }
+
+    private int append(char c, int length) {
+        if (length == word.length) {
+            char[] grown = new char[word.length * 2];
+            System.arraycopy(word, 0, grown, 0, length);
+            word = grown;
+        }
+        word[length] = c;
+        return length + 1;
+    }
+
+    /**
+     * Same characters as the {@code \s} regex class: space, tab, line feed, vertical tab, form feed
+     * and carriage return.
+     */
+    static boolean isWhitespace(int c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+}
@@ -13,6 +13,17 @@ public class ValidationUtils {
         }
     }
 
+    public static int parseInt(String value, int defaultValue, String errorMessage) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new GraphWordException(errorMessage);
+        }
+    }
+
     public static boolean isAlphaWord(String word) {
         return word.matches("[a-zA-Z]+");
     }
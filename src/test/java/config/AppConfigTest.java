@@ -4,6 +4,7 @@ import graph.GraphProcessor;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import storage.GraphAnalyzer;
+import utils.GraphWordException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -73,4 +74,33 @@ public class AppConfigTest {
             assertTrue(controller.getGraphAnalysis() instanceof GraphAnalyzer);
         }
     }
+
+    @Test
+    void testInitializeGraphController_FailsWhenInMemoryViewsCannotLoad() {
+        try (MockedStatic<ConfigLoader> mockedConfig = mockStatic(ConfigLoader.class)) {
+            // Nothing listens on this port, so the initial load from Neo4j fails
+            when(ConfigLoader.get("neo4j.uri")).thenReturn("bolt://localhost:1");
+            when(ConfigLoader.get("neo4j.user")).thenReturn("neo4j");
+            when(ConfigLoader.get("neo4j.password")).thenReturn("password");
+            when(ConfigLoader.get("neo4j.schema.bootstrap")).thenReturn("false");
+            when(ConfigLoader.get("analysis.indexes")).thenReturn("true");
+
+            assertThrows(GraphWordException.class, AppConfig::initializeGraphController,
+                    "Empty indexes must not serve queries");
+        }
+    }
+
+    @Test
+    void testInitializeGraphController_FailsWhenInMemoryGraphCannotLoad() {
+        try (MockedStatic<ConfigLoader> mockedConfig = mockStatic(ConfigLoader.class)) {
+            when(ConfigLoader.get("neo4j.uri")).thenReturn("bolt://localhost:1");
+            when(ConfigLoader.get("neo4j.user")).thenReturn("neo4j");
+            when(ConfigLoader.get("neo4j.password")).thenReturn("password");
+            when(ConfigLoader.get("neo4j.schema.bootstrap")).thenReturn("false");
+            when(ConfigLoader.get("analysis.engine")).thenReturn("memory");
+
+            assertThrows(GraphWordException.class, AppConfig::initializeGraphController,
+                    "An empty in-memory graph must not serve queries");
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BidirectionalBfsTest {
+
+    private static CsrGraph randomGraph(Random random, int nodes, int edges) {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 0; i < nodes; i++) {
+            builder.addWord("w" + i);
+        }
+        for (int i = 0; i < edges; i++) {
+            builder.addEdge(random.nextInt(nodes), random.nextInt(nodes));
+        }
+        return builder.build();
+    }
+
+    private static int[] bfsDistances(CsrGraph graph, int source) {
+        int[] distance = new int[graph.nodeCount()];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[graph.nodeCount()];
+        int head = 0;
+        int tail = 0;
+        distance[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int i = graph.neighborStart(node); i < graph.neighborEnd(node); i++) {
+                if (distance[graph.target(i)] < 0) {
+                    distance[graph.target(i)] = distance[node] + 1;
+                    queue[tail++] = graph.target(i);
+                }
+            }
+        }
+        return distance;
+    }
+
+    @Test
+    void testMatchesPlainBfsOnRandomGraphs() {
+        Random random = new Random(7);
+        for (int run = 0; run < 20; run++) {
+            CsrGraph graph = randomGraph(random, 60, 40 + run * 5);
+            BidirectionalBfs search = new BidirectionalBfs(graph);
+            for (int source = 0; source < graph.nodeCount(); source += 7) {
+                int[] expected = bfsDistances(graph, source);
+                for (int target = 0; target < graph.nodeCount(); target++) {
+                    int[] path = search.shortestPath(source, target);
+                    assertEquals(expected[target], path.length - 1);
+                    if (path.length > 0) {
+                        assertEquals(source, path[0]);
+                        assertEquals(target, path[path.length - 1]);
+                        for (int i = 1; i < path.length; i++) {
+                            assertTrue(graph.hasEdge(path[i - 1], path[i]));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBfsTreePathsAreShortest() {
+        Random random = new Random(11);
+        CsrGraph graph = randomGraph(random, 80, 120);
+        Bfs tree = new Bfs(graph);
+        for (int source = 0; source < graph.nodeCount(); source += 9) {
+            int[] expected = bfsDistances(graph, source);
+            tree.run(source);
+            for (int target = 0; target < graph.nodeCount(); target++) {
+                int[] path = tree.pathTo(target);
+                assertEquals(expected[target], path.length - 1);
+                if (path.length > 0) {
+                    assertEquals(source, path[0]);
+                    assertEquals(target, path[path.length - 1]);
+                    for (int i = 1; i < path.length; i++) {
+                        assertTrue(graph.hasEdge(path[i - 1], path[i]));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDifferentComponents() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("cat", "hat").addEdge("dog", "dot");
+        CsrGraph graph = builder.build();
+        BidirectionalBfs search = new BidirectionalBfs(graph);
+
+        assertFalse(graph.connected(graph.idOf("cat"), graph.idOf("dog")));
+        assertEquals(0, search.shortestPath(graph.idOf("cat"), graph.idOf("dog")).length);
+        assertEquals(-1, search.distance(graph.idOf("cat"), graph.idOf("dot")));
+        assertEquals(1, search.distance(graph.idOf("dog"), graph.idOf("dot")));
+        assertEquals(0, search.distance(graph.idOf("cat"), graph.idOf("cat")));
+    }
+}
@@ -0,0 +1,57 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsrGraphTest {
+
+    @Test
+    void testBuildSortsAndDeduplicatesNeighbors() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("cat", "hat").addEdge("hat", "cat").addEdge("cat", "cot").addEdge("cat", "cat");
+        builder.addWord("dog");
+        CsrGraph graph = builder.build();
+
+        assertEquals(4, graph.nodeCount());
+        assertEquals(2, graph.edgeCount());
+        int cat = graph.idOf("cat");
+        assertEquals(2, graph.degree(cat));
+        assertTrue(graph.hasEdge(cat, graph.idOf("hat")));
+        assertTrue(graph.hasEdge(graph.idOf("cot"), cat));
+        assertFalse(graph.hasEdge(graph.idOf("hat"), graph.idOf("cot")));
+        assertEquals(0, graph.degree(graph.idOf("dog")));
+        for (int i = graph.neighborStart(cat) + 1; i < graph.neighborEnd(cat); i++) {
+            assertTrue(graph.target(i - 1) < graph.target(i));
+        }
+    }
+
+    @Test
+    void testBuilderFromGraphKeepsIdsAndOldGraph() {
+        CsrGraph.Builder first = CsrGraph.builder();
+        first.addEdge("cat", "hat");
+        CsrGraph original = first.build();
+
+        CsrGraph.Builder next = CsrGraph.builder(original);
+        next.addEdge("hat", "hot");
+        CsrGraph extended = next.build();
+
+        assertEquals(original.idOf("hat"), extended.idOf("hat"));
+        assertEquals(2, extended.degree(extended.idOf("hat")));
+        assertEquals(2, extended.edgeCount());
+        assertEquals(-1, original.idOf("hot"));
+        assertEquals(2, original.nodeCount());
+    }
+
+    @Test
+    void testWordDictionary() {
+        WordDictionary dictionary = new WordDictionary();
+
+        assertEquals(0, dictionary.add("cat"));
+        assertEquals(1, dictionary.add("hat"));
+        assertEquals(0, dictionary.add("cat"));
+        assertEquals("hat", dictionary.wordOf(1));
+        assertEquals(-1, dictionary.idOf("dog"));
+        assertEquals(2, dictionary.size());
+    }
+}
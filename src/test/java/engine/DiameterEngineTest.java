@@ -0,0 +1,101 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiameterEngineTest {
+
+    private static int bruteForceDiameter(CsrGraph graph) {
+        Bfs bfs = new Bfs(graph);
+        int diameter = 0;
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            diameter = Math.max(diameter, bfs.run(node));
+        }
+        return diameter;
+    }
+
+    @Test
+    void testMatchesBruteForceOnRandomGraphs() {
+        Random random = new Random(11);
+        for (int run = 0; run < 40; run++) {
+            CsrGraph.Builder builder = CsrGraph.builder();
+            int nodes = 20 + random.nextInt(200);
+            for (int i = 0; i < nodes; i++) {
+                builder.addWord("w" + i);
+            }
+            int edges = nodes / 2 + random.nextInt(nodes * 2);
+            for (int i = 0; i < edges; i++) {
+                builder.addEdge(random.nextInt(nodes), random.nextInt(nodes));
+            }
+            CsrGraph graph = builder.build();
+
+            Diameter diameter = new DiameterEngine(graph).compute();
+
+            assertEquals(bruteForceDiameter(graph), diameter.getDistance());
+            assertEquals(diameter.getDistance(),
+                    new BidirectionalBfs(graph).distance(diameter.getSource(), diameter.getTarget()));
+        }
+    }
+
+    @Test
+    void testEstimateBoundsContainTheDiameter() {
+        Random random = new Random(5);
+        for (int run = 0; run < 20; run++) {
+            CsrGraph.Builder builder = CsrGraph.builder();
+            int nodes = 500 + random.nextInt(1500);
+            for (int i = 0; i < nodes; i++) {
+                builder.addWord("w" + i);
+            }
+            for (int i = 0; i < nodes; i++) {
+                builder.addEdge(random.nextInt(nodes), random.nextInt(nodes));
+            }
+            CsrGraph graph = builder.build();
+            int diameter = bruteForceDiameter(graph);
+
+            DiameterBounds bounds = new DiameterEngine(graph).estimate(1);
+
+            assertTrue(bounds.getLowerBound() <= diameter && diameter <= bounds.getUpperBound());
+            assertTrue(bounds.getSourcesUsed() >= 3);
+            assertEquals(bounds.getLowerBound(),
+                    new BidirectionalBfs(graph).distance(bounds.getSource(), bounds.getTarget()));
+        }
+    }
+
+    @Test
+    void testEstimateWithoutBudgetIsExact() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 0; i < 50; i++) {
+            builder.addEdge("w" + i, "w" + (i + 1));
+        }
+        DiameterBounds bounds = new DiameterEngine(builder.build()).estimate(0);
+
+        assertTrue(bounds.isExact());
+        assertEquals(50, bounds.getUpperBound());
+    }
+
+    @Test
+    void testLongPathNeedsFewBfsRuns() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.addEdge("w" + i, "w" + (i + 1));
+        }
+        builder.addEdge("x", "y");
+        DiameterEngine engine = new DiameterEngine(builder.build());
+
+        assertEquals(1000, engine.compute().getDistance());
+        assertTrue(engine.getBfsCount() < 10);
+    }
+
+    @Test
+    void testEmptyAndEdgelessGraphs() {
+        assertNull(new DiameterEngine(CsrGraph.builder().build()).compute());
+
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addWord("cat");
+        builder.addWord("dog");
+        assertEquals(0, new DiameterEngine(builder.build()).compute().getDistance());
+    }
+}
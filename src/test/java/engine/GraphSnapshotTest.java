@@ -0,0 +1,126 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphSnapshotTest {
+
+    @Test
+    void testRoundTripKeepsIdsEdgesAndComponents(@TempDir Path directory) throws IOException {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("cat", "hat").addEdge("hat", "hot").addEdge("dog", "dot").addWord("niño");
+        CsrGraph graph = builder.build();
+        Path path = directory.resolve("graph.snapshot");
+
+        GraphSnapshot.write(graph, path);
+        CsrGraph loaded = GraphSnapshot.read(path);
+
+        assertEquals(graph.nodeCount(), loaded.nodeCount());
+        assertEquals(graph.edgeCount(), loaded.edgeCount());
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            assertEquals(graph.wordOf(node), loaded.wordOf(node));
+            assertEquals(node, loaded.idOf(graph.wordOf(node)));
+            assertEquals(graph.degree(node), loaded.degree(node));
+        }
+        assertTrue(loaded.hasEdge(loaded.idOf("cat"), loaded.idOf("hat")));
+        assertTrue(loaded.connected(loaded.idOf("cat"), loaded.idOf("hot")));
+        assertFalse(loaded.connected(loaded.idOf("cat"), loaded.idOf("dog")));
+        assertEquals(-1, loaded.idOf("cot"));
+    }
+
+    @Test
+    void testReadServesTheGraphFromTheMapping(@TempDir Path directory) throws IOException {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("cat", "hat").addEdge("hat", "hot");
+        Path path = directory.resolve("graph.snapshot");
+        GraphSnapshot.write(builder.build(), path);
+
+        CsrGraph loaded = GraphSnapshot.read(path);
+        assertInstanceOf(MappedIntView.class, loaded.targets());
+        assertInstanceOf(MappedIntView.class, loaded.dictionary().table());
+
+        // Replacing the file leaves the mapped graph on the previous one
+        CsrGraph.Builder other = CsrGraph.builder();
+        other.addEdge("dog", "dot");
+        GraphSnapshot.write(other.build(), path);
+        assertEquals(3, loaded.nodeCount());
+        assertEquals("hot", loaded.wordOf(2));
+        assertTrue(loaded.hasEdge(loaded.idOf("hat"), loaded.idOf("hot")));
+        assertEquals(-1, GraphSnapshot.read(path).idOf("cat"));
+    }
+
+    @Test
+    void testLoadedGraphCanBeExtended(@TempDir Path directory) throws IOException {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        Random random = new Random(5);
+        for (int i = 0; i < 3000; i++) {
+            builder.addEdge("w" + random.nextInt(2000), "w" + random.nextInt(2000));
+        }
+        Path path = directory.resolve("graph.snapshot");
+        GraphSnapshot.write(builder.build(), path);
+
+        CsrGraph.Builder next = CsrGraph.builder(GraphSnapshot.read(path));
+        for (int i = 0; i < 3000; i++) {
+            next.addEdge("w" + i, "x" + i);
+        }
+        CsrGraph extended = next.build();
+
+        for (int i = 0; i < 3000; i++) {
+            assertTrue(extended.hasEdge(extended.idOf("w" + i), extended.idOf("x" + i)));
+        }
+    }
+
+    @Test
+    void testEmptyGraph(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("graph.snapshot");
+        GraphSnapshot.write(CsrGraph.builder().build(), path);
+
+        CsrGraph loaded = GraphSnapshot.read(path);
+
+        assertEquals(0, loaded.nodeCount());
+        assertEquals(-1, loaded.idOf("cat"));
+    }
+
+    @Test
+    void testRejectsForeignAndTruncatedFiles(@TempDir Path directory) throws IOException {
+        Path foreign = Files.writeString(directory.resolve("foreign"), "not a snapshot at all, just some text"
+                + " that is long enough to hold a header");
+        assertThrows(IOException.class, () -> GraphSnapshot.read(foreign));
+
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("cat", "hat");
+        Path path = directory.resolve("graph.snapshot");
+        GraphSnapshot.write(builder.build(), path);
+        byte[] bytes = Files.readAllBytes(path);
+        Path truncated = Files.write(directory.resolve("truncated"), Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> GraphSnapshot.read(truncated));
+
+        bytes[8] = 99;
+        Path future = Files.write(directory.resolve("future"), bytes);
+        IOException exception = assertThrows(IOException.class, () -> GraphSnapshot.read(future));
+        assertTrue(exception.getMessage().startsWith("Unsupported graph snapshot version 99"));
+    }
+
+    @Test
+    void testStampIsReadFromTheHeader(@TempDir Path directory) throws IOException {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("cat", "hat");
+        Path stamped = directory.resolve("stamped.snapshot");
+        Path plain = directory.resolve("plain.snapshot");
+
+        GraphSnapshot.write(builder.build(), new GraphSnapshot.Stamp(12, 34), stamped);
+        GraphSnapshot.write(builder.build(), plain);
+
+        assertEquals(new GraphSnapshot.Stamp(12, 34), GraphSnapshot.readStamp(stamped));
+        assertNull(GraphSnapshot.readStamp(plain));
+        assertEquals(1, GraphSnapshot.read(stamped).edgeCount());
+    }
+}
@@ -0,0 +1,90 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KShortestPathsTest {
+
+    // Lengths of every simple path up to maxLength, found by exhaustive DFS
+    private static void allPathLengths(CsrGraph graph, int node, int target, int maxLength,
+                                       boolean[] onPath, int length, List<Integer> lengths) {
+        if (node == target) {
+            lengths.add(length);
+            return;
+        }
+        if (length == maxLength) {
+            return;
+        }
+        onPath[node] = true;
+        for (int i = graph.neighborStart(node); i < graph.neighborEnd(node); i++) {
+            if (!onPath[graph.target(i)]) {
+                allPathLengths(graph, graph.target(i), target, maxLength, onPath, length + 1, lengths);
+            }
+        }
+        onPath[node] = false;
+    }
+
+    @Test
+    void testMatchesExhaustiveEnumerationOnRandomGraphs() {
+        Random random = new Random(3);
+        for (int run = 0; run < 30; run++) {
+            CsrGraph.Builder builder = CsrGraph.builder();
+            int nodes = 12;
+            for (int i = 0; i < nodes; i++) {
+                builder.addWord("w" + i);
+            }
+            for (int i = 0; i < 20; i++) {
+                builder.addEdge(random.nextInt(nodes), random.nextInt(nodes));
+            }
+            CsrGraph graph = builder.build();
+            KShortestPaths search = new KShortestPaths(graph);
+            int source = random.nextInt(nodes);
+            int target = random.nextInt(nodes);
+            int maxLength = 2 + random.nextInt(6);
+
+            List<Integer> expected = new ArrayList<>();
+            allPathLengths(graph, source, target, maxLength, new boolean[nodes], 0, expected);
+            expected.sort(null);
+            List<int[]> paths = search.find(source, target, 8, maxLength);
+
+            assertEquals(Math.min(8, expected.size()), paths.size());
+            Set<List<Integer>> distinct = new HashSet<>();
+            for (int p = 0; p < paths.size(); p++) {
+                int[] path = paths.get(p);
+                assertEquals(expected.get(p), path.length - 1);
+                assertEquals(source, path[0]);
+                assertEquals(target, path[path.length - 1]);
+                List<Integer> nodesOnPath = new ArrayList<>();
+                for (int i = 0; i < path.length; i++) {
+                    nodesOnPath.add(path[i]);
+                    if (i > 0) {
+                        assertTrue(graph.hasEdge(path[i - 1], path[i]));
+                    }
+                }
+                assertEquals(path.length, new HashSet<>(nodesOnPath).size());
+                assertTrue(distinct.add(nodesOnPath));
+            }
+        }
+    }
+
+    @Test
+    void testMaxLengthAndUnreachableTargets() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("a", "b").addEdge("b", "c").addEdge("a", "d").addEdge("d", "e").addEdge("e", "c");
+        builder.addWord("z");
+        CsrGraph graph = builder.build();
+        KShortestPaths search = new KShortestPaths(graph);
+
+        assertEquals(2, search.find(graph.idOf("a"), graph.idOf("c"), 5, 3).size());
+        assertEquals(1, search.find(graph.idOf("a"), graph.idOf("c"), 5, 2).size());
+        assertEquals(0, search.find(graph.idOf("a"), graph.idOf("c"), 5, 1).size());
+        assertEquals(0, search.find(graph.idOf("a"), graph.idOf("z"), 5, 10).size());
+    }
+}
@@ -0,0 +1,77 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LouvainEngineTest {
+
+    @Test
+    void testSeparatesCliquesJoinedByOneEdge() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        String[][] cliques = {{"a1", "a2", "a3", "a4"}, {"b1", "b2", "b3", "b4"}};
+        for (String[] clique : cliques) {
+            for (int i = 0; i < clique.length; i++) {
+                for (int j = i + 1; j < clique.length; j++) {
+                    builder.addEdge(clique[i], clique[j]);
+                }
+            }
+        }
+        builder.addEdge("a1", "b1");
+        builder.addWord("lonely");
+        CsrGraph graph = builder.build();
+
+        LouvainEngine.Result result = new LouvainEngine(graph).run();
+        int[] communities = result.getCommunities();
+
+        assertEquals(3, result.getCommunityCount());
+        for (String[] clique : cliques) {
+            for (String word : clique) {
+                assertEquals(communities[graph.idOf(clique[0])], communities[graph.idOf(word)]);
+            }
+        }
+        assertNotEquals(communities[graph.idOf("a1")], communities[graph.idOf("b1")]);
+        assertEquals(result.getModularity(), LouvainEngine.modularity(graph, communities), 1e-9);
+    }
+
+    @Test
+    void testFindsPlantedPartition() {
+        Random random = new Random(17);
+        int groups = 10;
+        int groupSize = 30;
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 0; i < groups * groupSize; i++) {
+            builder.addWord("w" + i);
+        }
+        for (int i = 0; i < groups * groupSize; i++) {
+            for (int j = 0; j < 6; j++) {
+                builder.addEdge(i, (i / groupSize) * groupSize + random.nextInt(groupSize));
+            }
+            builder.addEdge(i, random.nextInt(groups * groupSize));
+        }
+        CsrGraph graph = builder.build();
+
+        LouvainEngine.Result result = new LouvainEngine(graph).run();
+
+        int[] planted = new int[graph.nodeCount()];
+        for (int i = 0; i < planted.length; i++) {
+            planted[i] = i / groupSize;
+        }
+        assertTrue(result.getModularity() >= LouvainEngine.modularity(graph, planted) - 0.02);
+        assertTrue(result.getCommunityCount() >= groups - 2 && result.getCommunityCount() <= groups + 2);
+    }
+
+    @Test
+    void testGraphWithoutEdges() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addWord("cat");
+        builder.addWord("dog");
+
+        LouvainEngine.Result result = new LouvainEngine(builder.build()).run();
+
+        assertEquals(2, result.getCommunityCount());
+        assertEquals(0.0, result.getModularity());
+    }
+}
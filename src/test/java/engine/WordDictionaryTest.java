@@ -0,0 +1,66 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordDictionaryTest {
+
+    @Test
+    void testAssignsDenseIdsInInsertionOrder() {
+        WordDictionary dictionary = new WordDictionary();
+
+        assertEquals(0, dictionary.add("cat"));
+        assertEquals(1, dictionary.add("hat"));
+        assertEquals(0, dictionary.add("cat"));
+        assertEquals(2, dictionary.size());
+        assertEquals(1, dictionary.idOf("hat"));
+        assertEquals(-1, dictionary.idOf("bat"));
+        assertEquals("hat", dictionary.wordOf(1));
+        assertEquals(3, dictionary.lengthOf(1));
+        assertEquals((byte) 'h', dictionary.byteAt(1, 0));
+    }
+
+    @Test
+    void testGrowsPastInitialCapacity() {
+        WordDictionary dictionary = new WordDictionary();
+        int count = 50_000;
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, dictionary.add("word" + i + "x".repeat(i % 7)));
+        }
+
+        assertEquals(count, dictionary.size());
+        for (int i = 0; i < count; i += 997) {
+            String word = "word" + i + "x".repeat(i % 7);
+            assertEquals(i, dictionary.idOf(word));
+            assertEquals(word, dictionary.wordOf(i));
+        }
+        assertEquals(-1, dictionary.idOf("word" + count));
+    }
+
+    @Test
+    void testNonAsciiAndEmptyWords() {
+        WordDictionary dictionary = new WordDictionary();
+        int nino = dictionary.add("niño");
+        int empty = dictionary.add("");
+
+        assertEquals("niño", dictionary.wordOf(nino));
+        assertEquals("", dictionary.wordOf(empty));
+        assertEquals(nino, dictionary.idOf("niño"));
+        assertEquals(-1, dictionary.idOf("nino"));
+        assertEquals(5, dictionary.lengthOf(nino));
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        WordDictionary original = new WordDictionary();
+        original.add("cat");
+        WordDictionary copy = new WordDictionary(original);
+        copy.add("hat");
+
+        assertEquals(1, original.size());
+        assertEquals(-1, original.idOf("hat"));
+        assertEquals(1, copy.idOf("hat"));
+        assertEquals(0, copy.idOf("cat"));
+    }
+}
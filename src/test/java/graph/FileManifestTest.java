@@ -0,0 +1,53 @@
+package graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileManifestTest {
+
+    @Test
+    void testIngestedFileSurvivesRestart(@TempDir Path directory) throws IOException {
+        Path manifestPath = directory.resolve("manifest.json");
+        File book = Files.writeString(directory.resolve("book.txt"), "the cat sat").toFile();
+
+        FileManifest manifest = new FileManifest(manifestPath);
+        assertFalse(manifest.isIngested(book));
+        manifest.markIngested(book);
+
+        FileManifest reloaded = new FileManifest(manifestPath);
+        assertTrue(reloaded.isIngested(book));
+        assertEquals(1, reloaded.size());
+    }
+
+    @Test
+    void testRenamedFileIsSkipped(@TempDir Path directory) throws IOException {
+        Path manifestPath = directory.resolve("manifest.json");
+        Path original = Files.writeString(directory.resolve("book.txt"), "the cat sat");
+
+        FileManifest manifest = new FileManifest(manifestPath);
+        manifest.isIngested(original.toFile());
+        manifest.markIngested(original.toFile());
+        Path renamed = Files.move(original, directory.resolve("renamed.txt"));
+
+        assertTrue(new FileManifest(manifestPath).isIngested(renamed.toFile()));
+    }
+
+    @Test
+    void testEditedFileIsIngestedAgain(@TempDir Path directory) throws IOException {
+        Path manifestPath = directory.resolve("manifest.json");
+        Path book = Files.writeString(directory.resolve("book.txt"), "the cat sat");
+
+        FileManifest manifest = new FileManifest(manifestPath);
+        manifest.markIngested(book.toFile());
+        Files.writeString(book, "the dog ran away");
+
+        assertFalse(manifest.isIngested(book.toFile()));
+    }
+}
@@ -2,13 +2,20 @@ package graph;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
 import storage.GraphManipulation;
+import storage.ProjectionManager;
 import storage.WordFileReader;
 import utils.GraphWordException;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anySet;
@@ -98,6 +105,116 @@ public class GraphProcessorTest {
         verify(mockGraphManipulation).insertWords(Set.of("word1", "word2"));
     }
 
+    @Test
+    void testProcessDirectoryInParallel(@TempDir Path directory) throws IOException {
+        graphProcessor = new GraphProcessor(mockWordFileReader, mockGraphManipulation, 3, 2);
+        for (int i = 0; i < 6; i++) {
+            Path file = Files.writeString(directory.resolve("book" + i + ".txt"), "content");
+            when(mockWordFileReader.extractWords(file.toFile().getAbsolutePath())).thenReturn(Set.of("word" + i));
+        }
+        Path failing = Files.writeString(directory.resolve("broken.txt"), "content");
+        when(mockWordFileReader.extractWords(failing.toFile().getAbsolutePath())).thenReturn(Set.of());
+
+        graphProcessor.processDirectory(directory.toString());
+
+        for (int i = 0; i < 6; i++) {
+            verify(mockGraphManipulation).insertWords(Set.of("word" + i));
+            verify(mockGraphManipulation).connectWithExistingWords(Set.of("word" + i));
+            assertTrue(graphProcessor.getProcessedFiles().contains("book" + i + ".txt"));
+        }
+        assertFalse(graphProcessor.getProcessedFiles().contains("broken.txt"),
+                "A file that fails should not be marked as processed");
+        verify(mockGraphManipulation, times(1)).ensureGraphProjection("myGraph");
+    }
+
+    @Test
+    void testProcessGraphStreaming() {
+        graphProcessor = new GraphProcessor(mockWordFileReader, mockGraphManipulation,
+                new ProjectionManager(mockGraphManipulation, "myGraph"), 1, 1, 2);
+        when(mockWordFileReader.streamWords("validFilePath", 2))
+                .thenReturn(Stream.of(Set.of("word1", "word2"), Set.of("word3")));
+
+        assertDoesNotThrow(() -> graphProcessor.processGraph("validFilePath"));
+
+        verify(mockWordFileReader, never()).extractWords(anyString());
+        verify(mockGraphManipulation).insertWords(Set.of("word1", "word2"));
+        verify(mockGraphManipulation).connectWithExistingWords(Set.of("word1", "word2"));
+        verify(mockGraphManipulation).insertWords(Set.of("word3"));
+        verify(mockGraphManipulation).connectWithExistingWords(Set.of("word3"));
+        verify(mockGraphManipulation, times(1)).ensureGraphProjection("myGraph");
+    }
+
+    @Test
+    void testProcessGraphStreamingNoWords() {
+        graphProcessor = new GraphProcessor(mockWordFileReader, mockGraphManipulation,
+                new ProjectionManager(mockGraphManipulation, "myGraph"), 1, 1, 2);
+        when(mockWordFileReader.streamWords("emptyFilePath", 2)).thenReturn(Stream.empty());
+
+        GraphWordException exception = assertThrows(GraphWordException.class,
+                () -> graphProcessor.processGraph("emptyFilePath"));
+        assertEquals("No valid words found in file: emptyFilePath", exception.getMessage());
+        verifyNoInteractions(mockGraphManipulation);
+    }
+
+    @Test
+    void testProcessDirectorySkipsFilesInManifest(@TempDir Path directory) throws IOException {
+        Path library = Files.createDirectory(directory.resolve("library"));
+        Path book = Files.writeString(library.resolve("book.txt"), "content");
+        FileManifest manifest = new FileManifest(directory.resolve("manifest.json"));
+        when(mockWordFileReader.extractWords(book.toFile().getAbsolutePath())).thenReturn(Set.of("word1"));
+
+        graphProcessor = new GraphProcessor(mockWordFileReader, mockGraphManipulation,
+                new ProjectionManager(mockGraphManipulation, "myGraph"), 1, 1, 0, manifest);
+        graphProcessor.processDirectory(library.toString());
+
+        // A new processor simulates a restart: the file is unchanged, so it is not read again
+        graphProcessor = new GraphProcessor(mockWordFileReader, mockGraphManipulation,
+                new ProjectionManager(mockGraphManipulation, "myGraph"), 1, 1, 0,
+                new FileManifest(directory.resolve("manifest.json")));
+        graphProcessor.processDirectory(library.toString());
+
+        verify(mockWordFileReader, times(1)).extractWords(book.toFile().getAbsolutePath());
+    }
+
+    @Test
+    void testDirectoryListenerRunsOnlyWhenFilesWereProcessed(@TempDir Path directory) throws IOException {
+        Path book = Files.writeString(directory.resolve("book.txt"), "content");
+        when(mockWordFileReader.extractWords(book.toFile().getAbsolutePath())).thenReturn(Set.of("word1"));
+        AtomicInteger runs = new AtomicInteger();
+        graphProcessor.addDirectoryListener(runs::incrementAndGet);
+
+        graphProcessor.processDirectory(directory.toString());
+        graphProcessor.processDirectory(directory.toString());
+
+        assertEquals(1, runs.get(), "The second run finds no new files");
+    }
+
+    @Test
+    void testFailedProjectionRefreshDoesNotHideIngestionError(@TempDir Path directory) throws IOException {
+        Path book = Files.writeString(directory.resolve("book.txt"), "content");
+        when(mockWordFileReader.extractWords(book.toFile().getAbsolutePath())).thenReturn(Set.of("word1"));
+        doThrow(new RuntimeException("projection down")).when(mockGraphManipulation).ensureGraphProjection("myGraph");
+        IngestionProgress failingProgress = new IngestionProgress() {
+            @Override
+            public void fileProcessed(File file) {
+                throw new IllegalStateException("progress failed");
+            }
+        };
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> graphProcessor.processDirectory(directory.toString(), failingProgress));
+
+        assertEquals("progress failed", exception.getMessage());
+        assertEquals(1, exception.getSuppressed().length);
+        assertEquals("Failed to project the graph.", exception.getSuppressed()[0].getMessage());
+    }
+
+    @Test
+    void testInvalidConcurrency() {
+        assertThrows(GraphWordException.class,
+                () -> new GraphProcessor(mockWordFileReader, mockGraphManipulation, 0, 1));
+    }
+
     void testProcessDirectory() {
         // Setup mocks for the directory and files
         File mockFile1 = mock(File.class);
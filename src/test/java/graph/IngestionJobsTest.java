@@ -0,0 +1,115 @@
+package graph;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.GraphWordException;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class IngestionJobsTest {
+
+    @TempDir
+    Path directory;
+
+    private GraphProcessor mockProcessor;
+    private IngestionJobs jobs;
+
+    @BeforeEach
+    void setUp() {
+        mockProcessor = mock(GraphProcessor.class);
+        jobs = new IngestionJobs(mockProcessor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobs.close();
+    }
+
+    private static void awaitFinished(IngestionJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(job.isFinished(), "Job did not finish in time");
+    }
+
+    @Test
+    void testJobRunsInTheBackgroundAndReportsProgress() throws Exception {
+        doAnswer(invocation -> {
+            IngestionProgress progress = invocation.getArgument(1);
+            progress.filesFound(2);
+            jobs.wordsInserted(Set.of("cat", "hat", "hot"));
+            jobs.edgesCreated(2);
+            progress.fileProcessed(new File("book1.txt"));
+            progress.fileFailed(new File("book2.txt"), "No valid words found");
+            return null;
+        }).when(mockProcessor).processDirectory(anyString(), any(IngestionProgress.class));
+
+        IngestionJob job = jobs.submit(directory.toString());
+        awaitFinished(job);
+
+        Map<String, Object> status = job.describe();
+        assertEquals("COMPLETED", status.get("state"));
+        assertEquals(2, status.get("totalFiles"));
+        assertEquals(1, status.get("filesDone"));
+        assertEquals(1, status.get("filesFailed"));
+        assertEquals(3L, status.get("wordsWritten"));
+        assertEquals(2L, status.get("edgesCreated"));
+        assertFalse(jobs.needsPairs(), "Counting edges must not force the writes to return pairs");
+        assertSame(job, jobs.get(job.getId()));
+    }
+
+    @Test
+    void testQueuedSubmissionForTheSameDirectoryIsReused() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+                .when(mockProcessor).processDirectory(anyString(), any(IngestionProgress.class));
+
+        IngestionJob first = jobs.submit(directory.toString());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (first.getState() != IngestionJob.State.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        IngestionJob second = jobs.submit(directory.toString());
+        IngestionJob third = jobs.submit(directory.toString());
+        release.countDown();
+        awaitFinished(first);
+        awaitFinished(second);
+
+        assertNotSame(first, second, "A running job does not absorb new submissions");
+        assertSame(second, third, "A queued job does");
+        verify(mockProcessor, times(2)).processDirectory(anyString(), any(IngestionProgress.class));
+        assertEquals(2, jobs.list().size());
+    }
+
+    @Test
+    void testFailedJobKeepsTheError() throws Exception {
+        doThrow(new GraphWordException("Failed to project the graph."))
+                .when(mockProcessor).processDirectory(anyString(), any(IngestionProgress.class));
+
+        IngestionJob job = jobs.submit(directory.toString());
+        awaitFinished(job);
+
+        assertEquals(IngestionJob.State.FAILED, job.getState());
+        assertEquals("Failed to project the graph.", job.describe().get("error"));
+    }
+
+    @Test
+    void testMissingDirectoryIsRejectedUpFront() {
+        assertThrows(GraphWordException.class, () -> jobs.submit(directory.resolve("missing").toString()));
+        assertThrows(GraphWordException.class, () -> jobs.submit(""));
+        assertTrue(jobs.list().isEmpty());
+    }
+}
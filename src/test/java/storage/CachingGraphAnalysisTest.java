@@ -0,0 +1,106 @@
+package storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.GraphWordException;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CachingGraphAnalysisTest {
+
+    private GraphAnalysis mockDelegate;
+    private CachingGraphAnalysis analysis;
+
+    @BeforeEach
+    void setUp() {
+        mockDelegate = mock(GraphAnalysis.class);
+        analysis = new CachingGraphAnalysis(mockDelegate, 2);
+    }
+
+    @Test
+    void testRepeatedCallsAreServedFromTheCache() {
+        when(mockDelegate.findCommunities()).thenReturn(List.of(List.of("cat", "hat")));
+        when(mockDelegate.findHighConnectivityNodes(6)).thenReturn(List.of("cat"));
+
+        analysis.findCommunities();
+        analysis.findCommunities();
+        analysis.findHighConnectivityNodes(6);
+        assertEquals(List.of("cat"), analysis.findHighConnectivityNodes(6));
+
+        verify(mockDelegate, times(1)).findCommunities();
+        verify(mockDelegate, times(1)).findHighConnectivityNodes(6);
+        assertEquals(2, analysis.getHitCount());
+        assertEquals(2, analysis.getMissCount());
+    }
+
+    @Test
+    void testBatchSharesEntriesWithSinglePaths() {
+        when(mockDelegate.findShortestPath("cat", "hat")).thenReturn(List.of("cat", "hat"));
+        when(mockDelegate.findShortestPaths(List.of(List.of("hat", "hot"))))
+                .thenReturn(List.of(List.of("hat", "hot")));
+
+        analysis.findShortestPath("cat", "hat");
+        List<List<String>> paths = analysis.findShortestPaths(List.of(List.of("cat", "hat"), List.of("hat", "hot")));
+
+        assertEquals(List.of(List.of("cat", "hat"), List.of("hat", "hot")), paths);
+        assertEquals(List.of("hat", "hot"), analysis.findShortestPath("hat", "hot"));
+        verify(mockDelegate).findShortestPaths(List.of(List.of("hat", "hot")));
+        verify(mockDelegate, never()).findShortestPath("hat", "hot");
+    }
+
+    @Test
+    void testParametersArePartOfTheKey() {
+        when(mockDelegate.findAllPaths("cat", "hot", 5, 3)).thenReturn(List.of(List.of("cat", "hat", "hot")));
+
+        analysis.findAllPaths("cat", "hot", 5, 3);
+        analysis.findAllPaths("cat", "hot", 5, 4);
+        analysis.findAllPaths("cat", "hot", 5, 3);
+
+        verify(mockDelegate, times(1)).findAllPaths("cat", "hot", 5, 3);
+        verify(mockDelegate, times(1)).findAllPaths("cat", "hot", 5, 4);
+    }
+
+    @Test
+    void testIngestionBumpsTheVersion() {
+        when(mockDelegate.findIsolatedNodes()).thenReturn(List.of("dog"), List.of("dog", "cow"));
+
+        assertEquals(List.of("dog"), analysis.findIsolatedNodes());
+        analysis.wordsInserted(Set.of("cow"));
+
+        assertEquals(1, analysis.getVersion());
+        assertEquals(0, analysis.size());
+        assertEquals(List.of("dog", "cow"), analysis.findIsolatedNodes());
+        verify(mockDelegate, times(2)).findIsolatedNodes();
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        when(mockDelegate.findNodesByDegree(anyInt())).thenReturn(List.of("cat"));
+
+        analysis.findNodesByDegree(1);
+        analysis.findNodesByDegree(2);
+        analysis.findNodesByDegree(1);
+        analysis.findNodesByDegree(3);
+        analysis.findNodesByDegree(1);
+        analysis.findNodesByDegree(2);
+
+        assertEquals(2, analysis.size());
+        verify(mockDelegate, times(1)).findNodesByDegree(1);
+        verify(mockDelegate, times(2)).findNodesByDegree(2);
+    }
+
+    @Test
+    void testErrorsAreNotCached() {
+        when(mockDelegate.findMaximumDistance()).thenThrow(new GraphWordException("down")).thenReturn(4);
+
+        assertThrows(GraphWordException.class, () -> analysis.findMaximumDistance());
+        assertEquals(4, analysis.findMaximumDistance());
+        assertEquals(4, analysis.findMaximumDistance());
+
+        verify(mockDelegate, times(2)).findMaximumDistance();
+    }
+}
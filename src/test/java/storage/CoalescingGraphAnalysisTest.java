@@ -0,0 +1,124 @@
+package storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.GraphWordException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CoalescingGraphAnalysisTest {
+
+    private static final int CALLERS = 8;
+
+    private GraphAnalysis mockDelegate;
+    private CoalescingGraphAnalysis analysis;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        mockDelegate = mock(GraphAnalysis.class);
+        analysis = new CoalescingGraphAnalysis(mockDelegate);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    // Runs the call from every caller while the delegate is blocked, then lets the delegate finish
+    private List<Future<Object>> callTogether(Callable<Object> call, CountDownLatch release)
+            throws InterruptedException {
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(call));
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (analysis.getWaiterCount() < CALLERS - 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        return results;
+    }
+
+    @Test
+    void testConcurrentIdenticalCallsShareOneComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockDelegate.findCommunities()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(List.of("cat", "hat"));
+        });
+
+        List<Future<Object>> results = callTogether(() -> analysis.findCommunities(), release);
+
+        for (Future<Object> result : results) {
+            assertEquals(List.of(List.of("cat", "hat")), result.get(5, TimeUnit.SECONDS));
+        }
+        verify(mockDelegate, times(1)).findCommunities();
+        assertEquals(1, analysis.getComputationCount());
+        assertEquals(CALLERS - 1, analysis.getCoalescedCount());
+        assertEquals(CALLERS - 1, analysis.getPeakWaiterCount());
+        assertEquals(0, analysis.getWaiterCount());
+        assertEquals(0, analysis.getInFlightCount());
+        executor.shutdown();
+    }
+
+    @Test
+    void testWaitersReceiveTheException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockDelegate.findMaximumDistance()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new GraphWordException("GDS failed");
+        });
+
+        List<Future<Object>> results = callTogether(() -> analysis.findMaximumDistance(), release);
+
+        for (Future<Object> result : results) {
+            Exception exception = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(GraphWordException.class, exception.getCause());
+        }
+        verify(mockDelegate, times(1)).findMaximumDistance();
+        executor.shutdown();
+    }
+
+    @Test
+    void testSequentialCallsAndDifferentParametersRunSeparately() {
+        when(mockDelegate.findNodesByDegree(anyInt())).thenReturn(List.of("cat"));
+
+        analysis.findNodesByDegree(1);
+        analysis.findNodesByDegree(1);
+        analysis.findNodesByDegree(2);
+
+        verify(mockDelegate, times(2)).findNodesByDegree(1);
+        verify(mockDelegate, times(1)).findNodesByDegree(2);
+        assertEquals(0, analysis.getCoalescedCount());
+        executor.shutdown();
+    }
+
+    @Test
+    void testCallsAfterAWriteDoNotJoinOlderComputations() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockDelegate.findCommunities()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(List.of("cat"));
+        }).thenReturn(List.of(List.of("cat", "hat")));
+
+        Future<Object> before = executor.submit(() -> analysis.findCommunities());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        analysis.wordsConnected(List.of(List.of("cat", "hat")));
+
+        assertEquals(List.of(List.of("cat", "hat")), analysis.findCommunities());
+        release.countDown();
+        assertEquals(List.of(List.of("cat")), before.get(5, TimeUnit.SECONDS));
+        assertEquals(2, analysis.getComputationCount());
+        assertEquals(0, analysis.getCoalescedCount());
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,61 @@
+package storage;
+
+import engine.GraphSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+public class CommunityWriteBackTest {
+
+    @Test
+    void testWriteStoresOneIdPerCommunityWithTheStamp() {
+        InMemoryGraphAnalyzer analyzer = new InMemoryGraphAnalyzer();
+        analyzer.wordsInserted(List.of("cat", "hat", "dog"));
+        analyzer.wordsConnected(List.of(List.of("cat", "hat")));
+        GraphManipulation mockManipulation = mock(GraphManipulation.class);
+        GraphSnapshot.Stamp stamp = new GraphSnapshot.Stamp(3, 1);
+
+        new CommunityWriteBack(analyzer, mockManipulation, () -> stamp, null, 0).write();
+
+        verify(mockManipulation).writeCommunityIds(argThat(ids -> ids.size() == 3
+                && ids.get("cat").equals(ids.get("hat")) && !ids.get("cat").equals(ids.get("dog"))), eq(stamp));
+    }
+
+    @Test
+    void testBurstOfBatchesLeadsToOneWrite() throws InterruptedException {
+        GraphAnalysis mockAnalysis = mock(GraphAnalysis.class);
+        GraphManipulation mockManipulation = mock(GraphManipulation.class);
+        try (CommunityWriteBack writeBack = new CommunityWriteBack(mockAnalysis, mockManipulation,
+                () -> new GraphSnapshot.Stamp(0, 0), null, 200)) {
+            for (int i = 0; i < 5; i++) {
+                writeBack.wordsInserted(List.of("word" + i));
+                writeBack.edgesCreated(1);
+            }
+
+            verify(mockManipulation, timeout(2000)).writeCommunityIds(any(), any());
+            Thread.sleep(300);
+            verify(mockManipulation, times(1)).writeCommunityIds(any(), any());
+            assertEquals(1, writeBack.getWriteCount());
+            assertFalse(writeBack.needsPairs());
+        }
+    }
+
+    @Test
+    void testProjectionIsRefreshedBeforeComputing() {
+        GraphAnalysis mockAnalysis = mock(GraphAnalysis.class);
+        GraphManipulation mockManipulation = mock(GraphManipulation.class);
+        ProjectionManager mockProjection = mock(ProjectionManager.class);
+
+        new CommunityWriteBack(mockAnalysis, mockManipulation, () -> new GraphSnapshot.Stamp(0, 0),
+                mockProjection, 0).write();
+
+        org.mockito.InOrder inOrder = inOrder(mockProjection, mockAnalysis);
+        inOrder.verify(mockProjection).refreshIfStale();
+        inOrder.verify(mockAnalysis).forEachCommunity(any());
+    }
+}
@@ -0,0 +1,50 @@
+package storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ComponentIndexTest {
+
+    private ComponentIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ComponentIndex();
+        index.wordsInserted(List.of("cat", "hat", "hot", "dog", "zebra"));
+        index.wordsConnected(List.of(List.of("cat", "hat"), List.of("hat", "hot")));
+    }
+
+    @Test
+    void testReachabilityAndSizes() {
+        assertTrue(index.connected("cat", "hot"));
+        assertFalse(index.connected("cat", "dog"));
+        assertFalse(index.connected("cat", "unknown"));
+        assertEquals(3, index.componentSize("hot"));
+        assertEquals(1, index.componentSize("dog"));
+        assertEquals(0, index.componentSize("unknown"));
+        assertEquals(3, index.componentCount());
+        assertEquals(Map.of(3, 1, 1, 2), index.componentSizes());
+        assertEquals(List.of(3, 1), List.copyOf(index.componentSizes().keySet()));
+    }
+
+    @Test
+    void testIsolatedWordsFollowNewEdges() {
+        assertEquals(List.of("dog", "zebra"), index.isolatedWords());
+        assertTrue(index.isIsolated("dog"));
+
+        // Edges may be reported twice and may mention words not inserted yet
+        index.wordsConnected(List.of(List.of("dog", "dot"), List.of("dot", "dog"), List.of("dot", "hot")));
+
+        assertEquals(List.of("zebra"), index.isolatedWords());
+        assertFalse(index.isIsolated("dog"));
+        assertTrue(index.connected("dog", "cat"));
+        assertEquals(5, index.componentSize("cat"));
+        assertEquals(Map.of(5, 1, 1, 1), index.componentSizes());
+        assertEquals(6, index.wordCount());
+    }
+}
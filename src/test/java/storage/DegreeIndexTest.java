@@ -0,0 +1,48 @@
+package storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DegreeIndexTest {
+
+    private DegreeIndex index;
+
+    // hot has degree 3; cat, hat and cot degree 2; dot degree 1; zebra degree 0
+    @BeforeEach
+    void setUp() {
+        index = new DegreeIndex();
+        index.wordsInserted(List.of("cat", "hat", "hot", "dot", "cot", "zebra"));
+        index.wordsConnected(List.of(
+                List.of("cat", "hat"), List.of("hat", "hot"), List.of("hot", "dot"),
+                List.of("cat", "cot"), List.of("cot", "hot")));
+    }
+
+    @Test
+    void testLookupsByDegree() {
+        assertEquals(3, index.degreeOf("hot"));
+        assertEquals(-1, index.degreeOf("unknown"));
+        assertEquals(List.of("dot"), index.wordsWithDegree(1));
+        assertEquals(List.of("zebra"), index.wordsWithDegree(0));
+        assertTrue(index.wordsWithDegree(9).isEmpty());
+        assertEquals(List.of("hot"), index.wordsWithMinDegree(3));
+        List<String> atLeastTwo = index.wordsWithMinDegree(2);
+        assertEquals("hot", atLeastTwo.get(0));
+        assertEquals(4, atLeastTwo.size());
+    }
+
+    @Test
+    void testHistogramAndRepeatedEdges() {
+        assertEquals(Map.of(0, 1, 1, 1, 2, 3, 3, 1), index.histogram());
+        assertEquals(List.of(0, 1, 2, 3), List.copyOf(index.histogram().keySet()));
+
+        index.wordsConnected(List.of(List.of("hat", "cat"), List.of("dot", "hot"), List.of("zebra", "zebra")));
+
+        assertEquals(2, index.degreeOf("cat"));
+        assertEquals(Map.of(0, 1, 1, 1, 2, 3, 3, 1), index.histogram());
+    }
+}
@@ -7,8 +7,12 @@ import org.neo4j.driver.*;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -44,24 +48,64 @@ public class GraphAnalyzerTest {
         });
     }
 
+    @Test
+    void testFindShortestPathBetweenTheSameWordSkipsTheQuery() {
+        assertEquals(List.of(), graphAnalyzer.findShortestPath("node1", "node1"));
+        verifyNoInteractions(mockSession);
+    }
+
+    @Test
+    void testFindShortestPathsPlacesRowsByIndex() {
+        org.neo4j.driver.Record record = mock(org.neo4j.driver.Record.class);
+        when(record.get("index")).thenReturn(Values.value(1));
+        when(record.get("path")).thenReturn(Values.value(List.of("cat", "hat")));
+        when(mockSession.run(contains("UNWIND $pairs AS pair"), any(Value.class))).thenReturn(mockResult);
+        when(mockResult.hasNext()).thenReturn(true, false);
+        when(mockResult.next()).thenReturn(record);
+
+        List<List<String>> paths = graphAnalyzer.findShortestPaths(
+                List.of(List.of("cat", "cat"), List.of("cat", "hat"), List.of("cat", "dog")));
+
+        assertEquals(List.of(List.of(), List.of("cat", "hat"), List.of()), paths);
+        verify(mockSession, times(1)).run(anyString(), any(Value.class));
+    }
+
+    @Test
+    void testFindShortestPathsFailsWhenAChunkFails() {
+        when(mockSession.run(contains("UNWIND $pairs AS pair"), any(Value.class)))
+                .thenThrow(new RuntimeException("Connection lost"));
+
+        utils.GraphWordException exception = assertThrows(utils.GraphWordException.class,
+                () -> graphAnalyzer.findShortestPaths(List.of(List.of("cat", "hat"))));
+        assertTrue(exception.getMessage().contains("Connection lost"));
+    }
+
     @Test
     void testFindAllPaths() {
-        Result mockResult = mock(Result.class);
-        when(mockSession.run(
-                eq("MATCH path = (start:Word {name: $source})-[*]-(end:Word {name: $target}) " +
-                "WHERE ALL(node IN nodes(path) WHERE single(x IN nodes(path) WHERE x = node)) " +
-                "RETURN [node IN nodes(path) | node.name] AS path, size(relationships(path)) AS length ORDER BY length ASC LIMIT 10"),
-                eq(Values.parameters("source", "node1", "target", "node2"))
+        org.neo4j.driver.Record record = mock(org.neo4j.driver.Record.class);
+        when(record.get("path")).thenReturn(Values.value(List.of("node1", "node2")));
+        when(mockSession.run(contains("gds.shortestPath.yens.stream('myGraph'"),
+                eq(Values.parameters("source", "node1", "target", "node2", "k", 10, "maxLength", 10))
         )).thenReturn(mockResult);
+        when(mockResult.hasNext()).thenReturn(true, false);
+        when(mockResult.next()).thenReturn(record);
 
-        assertDoesNotThrow(() -> {
-            graphAnalyzer.findAllPaths("node1", "node2");
-            verify(mockSession).run(anyString(), any(Value.class));
-        });
+        List<List<String>> paths = graphAnalyzer.findAllPaths("node1", "node2");
+
+        assertEquals(List.of(List.of("node1", "node2")), paths);
+        verify(mockSession, never()).run(contains("[:CONNECTED*"), any(Value.class));
+    }
+
+    @Test
+    void testFindAllPathsBetweenTheSameWordSkipsTheQuery() {
+        assertEquals(List.of(), graphAnalyzer.findAllPaths("node1", "node1"));
+        verifyNoInteractions(mockSession);
     }
 
     @Test
     void testFindMaximumDistance() {
+        org.neo4j.driver.Record mockRecord = mock(org.neo4j.driver.Record.class);
+        when(mockRecord.get("maxDistance")).thenReturn(Values.value(4));
         assertDoesNotThrow(() -> {
             when(mockSession.run(
                 eq("CALL gds.allShortestPaths.stream('myGraph') " +
@@ -70,32 +114,118 @@ public class GraphAnalyzerTest {
             )).thenReturn(mockResult);
 
             when(mockResult.hasNext()).thenReturn(true);
-            when(mockResult.next()).thenReturn(mock(org.neo4j.driver.Record.class));
+            when(mockResult.next()).thenReturn(mockRecord);
 
             int maxDistance = graphAnalyzer.findMaximumDistance();
+            assertEquals(4, maxDistance);
             verify(mockSession, times(1)).run(anyString());
         });
     }
 
+    @Test
+    void testQueryFailuresAreThrownInsteadOfReturnedAsEmptyResults() {
+        when(mockSession.run(anyString())).thenThrow(new RuntimeException("Connection lost"));
+        when(mockSession.run(anyString(), any(Value.class))).thenThrow(new RuntimeException("Connection lost"));
+
+        assertThrows(utils.GraphWordException.class, () -> graphAnalyzer.findShortestPath("cat", "dog"));
+        assertThrows(utils.GraphWordException.class, () -> graphAnalyzer.findAllPaths("cat", "dog"));
+        assertThrows(utils.GraphWordException.class, () -> graphAnalyzer.findMaximumDistance());
+        assertThrows(utils.GraphWordException.class, () -> graphAnalyzer.findMaximumDistanceWithEndpoints());
+        assertThrows(utils.GraphWordException.class, () -> graphAnalyzer.findCommunities());
+        assertThrows(utils.GraphWordException.class, () -> graphAnalyzer.findIsolatedNodes());
+        assertThrows(utils.GraphWordException.class, () -> graphAnalyzer.findComponentSizes());
+        assertThrows(utils.GraphWordException.class, () -> graphAnalyzer.findHighConnectivityNodes(3));
+        assertThrows(utils.GraphWordException.class, () -> graphAnalyzer.findNodesByDegree(3));
+        assertThrows(utils.GraphWordException.class, () -> graphAnalyzer.findDegreeHistogram());
+    }
+
+    @Test
+    void testFindMaximumDistanceWithEndpoints() {
+        org.neo4j.driver.Record mockRecord = mock(org.neo4j.driver.Record.class);
+        when(mockRecord.get("distance")).thenReturn(Values.value(7.0));
+        when(mockRecord.get("source")).thenReturn(Values.value("cat"));
+        when(mockRecord.get("target")).thenReturn(Values.value("dog"));
+        when(mockSession.run(contains("ORDER BY distance DESC"))).thenReturn(mockResult);
+        when(mockResult.hasNext()).thenReturn(true);
+        when(mockResult.next()).thenReturn(mockRecord);
+
+        MaximumDistance maximumDistance = graphAnalyzer.findMaximumDistanceWithEndpoints();
+
+        assertEquals(7, maximumDistance.getMaximumDistance());
+        assertEquals("cat", maximumDistance.getSource());
+        assertEquals("dog", maximumDistance.getTarget());
+    }
+
     @Test
     void testFindCommunities() {
         assertDoesNotThrow(() -> {
             when(mockSession.run(
                 eq("CALL gds.louvain.stream('myGraph') " +
                    "YIELD communityId, nodeId " +
-                   "MATCH (n:Word) WHERE id(n) = nodeId " +
-                   "RETURN communityId, collect(n.name) AS members " +
+                   "RETURN communityId, collect(gds.util.asNode(nodeId).name) AS members " +
                    "ORDER BY communityId")
             )).thenReturn(mockResult);
 
-            when(mockResult.hasNext()).thenReturn(true);
-            when(mockResult.next()).thenReturn(mock(org.neo4j.driver.Record.class));
+            org.neo4j.driver.Record mockRecord = mock(org.neo4j.driver.Record.class);
+            when(mockRecord.get("members")).thenReturn(Values.value(List.of("cat", "hat")));
+            when(mockResult.hasNext()).thenReturn(true, false);
+            when(mockResult.next()).thenReturn(mockRecord);
 
             List<List<String>> communities = graphAnalyzer.findCommunities();
+            assertEquals(List.of(List.of("cat", "hat")), communities);
             verify(mockSession, times(1)).run(anyString());
         });
     }
 
+    @Test
+    void testCommunitiesAreReadFromCurrentCommunityIds() {
+        graphAnalyzer = new GraphAnalyzer(mockDriver, null, true);
+        mockCommunityMarker(3, 1);
+        mockCount("MATCH (w:Word) RETURN count(w) AS count", 3);
+        mockCount("MATCH ()-[r:CONNECTED]->() RETURN count(r) AS count", 1);
+        org.neo4j.driver.Record record = mock(org.neo4j.driver.Record.class);
+        when(record.get("members")).thenReturn(Values.value(List.of("cat", "hat")));
+        when(mockSession.run(contains("WHERE w.communityId IS NOT NULL"))).thenReturn(mockResult);
+        when(mockResult.hasNext()).thenReturn(true, false);
+        when(mockResult.next()).thenReturn(record);
+
+        assertEquals(List.of(List.of("cat", "hat")), graphAnalyzer.findCommunities());
+        verify(mockSession, never()).run(contains("gds.louvain.stream"));
+    }
+
+    @Test
+    void testStaleCommunityIdsFallBackToLouvain() {
+        graphAnalyzer = new GraphAnalyzer(mockDriver, null, true);
+        mockCommunityMarker(3, 1);
+        mockCount("MATCH (w:Word) RETURN count(w) AS count", 4);
+        mockCount("MATCH ()-[r:CONNECTED]->() RETURN count(r) AS count", 1);
+        when(mockSession.run(contains("gds.louvain.stream"))).thenReturn(mockResult);
+        when(mockResult.hasNext()).thenReturn(false);
+
+        graphAnalyzer.findCommunities();
+
+        verify(mockSession).run(contains("gds.louvain.stream"));
+        verify(mockSession, never()).run(contains("WHERE w.communityId IS NOT NULL"));
+    }
+
+    private void mockCommunityMarker(long wordCount, long edgeCount) {
+        org.neo4j.driver.Record marker = mock(org.neo4j.driver.Record.class);
+        when(marker.get("wordCount")).thenReturn(Values.value(wordCount));
+        when(marker.get("edgeCount")).thenReturn(Values.value(edgeCount));
+        Result markerResult = mock(Result.class);
+        when(markerResult.hasNext()).thenReturn(true);
+        when(markerResult.next()).thenReturn(marker);
+        when(mockSession.run(contains("MATCH (m:CommunityAssignment)"))).thenReturn(markerResult);
+    }
+
+    private void mockCount(String query, long count) {
+        org.neo4j.driver.Record record = mock(org.neo4j.driver.Record.class);
+        when(record.get("count")).thenReturn(Values.value(count));
+        Result countResult = mock(Result.class);
+        when(countResult.single()).thenReturn(record);
+        when(mockSession.run(query)).thenReturn(countResult);
+    }
+
     @Test
     void testFindIsolatedNodes() {
         assertDoesNotThrow(() -> {
@@ -103,14 +233,55 @@ public class GraphAnalyzerTest {
                 eq("MATCH (w:Word) WHERE NOT (w)-[]-() RETURN w.name AS name")
             )).thenReturn(mockResult);
 
-            when(mockResult.hasNext()).thenReturn(true);
-            when(mockResult.next()).thenReturn(mock(org.neo4j.driver.Record.class));
+            org.neo4j.driver.Record mockRecord = mock(org.neo4j.driver.Record.class);
+            when(mockRecord.get("name")).thenReturn(Values.value("zebra"));
+            when(mockResult.hasNext()).thenReturn(true, false);
+            when(mockResult.next()).thenReturn(mockRecord);
 
             List<String> isolatedNodes = graphAnalyzer.findIsolatedNodes();
+            assertEquals(List.of("zebra"), isolatedNodes);
             verify(mockSession, times(1)).run(anyString());
         });
     }
 
+    @Test
+    void testForEachIsolatedNodeStreamsRowsAndPropagatesWriteFailures() {
+        org.neo4j.driver.Record first = mock(org.neo4j.driver.Record.class);
+        org.neo4j.driver.Record second = mock(org.neo4j.driver.Record.class);
+        when(first.get("name")).thenReturn(Values.value("uno"));
+        when(second.get("name")).thenReturn(Values.value("dos"));
+        when(mockSession.run(eq("MATCH (w:Word) WHERE NOT (w)-[]-() RETURN w.name AS name")))
+                .thenReturn(mockResult);
+        when(mockResult.hasNext()).thenReturn(true, true, false);
+        when(mockResult.next()).thenReturn(first, second);
+
+        List<String> seen = new java.util.ArrayList<>();
+        graphAnalyzer.forEachIsolatedNode(seen::add);
+        assertEquals(List.of("uno", "dos"), seen);
+
+        when(mockResult.hasNext()).thenReturn(true);
+        when(mockResult.next()).thenReturn(first);
+        assertThrows(java.io.UncheckedIOException.class, () -> graphAnalyzer.forEachIsolatedNode(name -> {
+            throw new java.io.UncheckedIOException(new java.io.IOException("client gone"));
+        }));
+    }
+
+    @Test
+    void testForEachCommunityReportsFailuresPartwayThrough() {
+        org.neo4j.driver.Record first = mock(org.neo4j.driver.Record.class);
+        when(first.get("members")).thenReturn(Values.value(List.of("cat", "hat")));
+        when(mockSession.run(contains("gds.louvain.stream"))).thenReturn(mockResult);
+        when(mockResult.hasNext()).thenReturn(true, true);
+        when(mockResult.next()).thenReturn(first).thenThrow(new RuntimeException("Connection reset"));
+
+        List<List<String>> seen = new java.util.ArrayList<>();
+        utils.GraphWordException exception = assertThrows(utils.GraphWordException.class,
+                () -> graphAnalyzer.forEachCommunity(seen::add));
+
+        assertEquals(List.of(List.of("cat", "hat")), seen);
+        assertTrue(exception.getMessage().contains("Connection reset"));
+    }
+
     @Test
     void testFindHighConnectivityNodes() {
         Result mockResult = mock(Result.class);
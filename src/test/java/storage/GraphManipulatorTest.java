@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.ArgumentMatchers.*;
 
+import java.util.List;
 import java.util.Set;
 
 public class GraphManipulatorTest {
@@ -24,6 +25,34 @@ public class GraphManipulatorTest {
         graphManipulator = new GraphManipulator(mockDriver);
     }
 
+    private void mockStoredWords(String... names) {
+        mockStoredWords(List.of(names));
+    }
+
+    // The names are read when the query runs, so a test can add words as they are inserted
+    private void mockStoredWords(List<String> names) {
+        when(mockSession.run("MATCH (w:Word) RETURN w.name AS name")).thenAnswer(invocation -> {
+            java.util.Iterator<String> iterator = List.copyOf(names).iterator();
+            Result mockNamesResult = mock(Result.class);
+            when(mockNamesResult.hasNext()).thenAnswer(hasNext -> iterator.hasNext());
+            when(mockNamesResult.next()).thenAnswer(next -> {
+                org.neo4j.driver.Record record = mock(org.neo4j.driver.Record.class);
+                when(record.get("name")).thenReturn(Values.value(iterator.next()));
+                return record;
+            });
+            return mockNamesResult;
+        });
+    }
+
+    private void mockNodeCount(int nodeCount) {
+        Result mockCountResult = mock(Result.class);
+        org.neo4j.driver.Record mockCountRecord = mock(org.neo4j.driver.Record.class);
+        when(mockCountRecord.get("nodeCount")).thenReturn(Values.value(nodeCount));
+        when(mockCountResult.hasNext()).thenReturn(true);
+        when(mockCountResult.next()).thenReturn(mockCountRecord);
+        when(mockSession.run("MATCH (n) RETURN count(n) AS nodeCount")).thenReturn(mockCountResult);
+    }
+
     private void setupMockResult(Result mockResult, boolean hasNext, org.neo4j.driver.Record mockRecord) {
         when(mockResult.hasNext()).thenReturn(hasNext);
         when(mockResult.next()).thenReturn(mockRecord);
@@ -46,6 +75,7 @@ public class GraphManipulatorTest {
     @Test
     void testInsertWords() {
         Set<String> words = Set.of("word1", "word2", "word3");
+        mockStoredWords();
 
         assertDoesNotThrow(() -> {
             when(mockSession.writeTransaction(any())).thenReturn(null);
@@ -54,46 +84,259 @@ public class GraphManipulatorTest {
         });
     }
 
+    @Test
+    void testInsertWordsInChunks() {
+        graphManipulator = new GraphManipulator(mockDriver, ConnectMode.NEIGHBOR_INDEX, 2);
+        Set<String> words = Set.of("word1", "word2", "word3", "word4", "word5");
+        mockStoredWords();
+        Transaction mockTransaction = mockWriteTransactions();
+
+        graphManipulator.insertWords(words);
+
+        verify(mockSession, times(3)).writeTransaction(any());
+        verify(mockTransaction, times(3)).run(eq("UNWIND $words AS word MERGE (w:Word {name: word})"), any(Value.class));
+    }
+
+    @Test
+    void testInvalidInsertBatchSize() {
+        assertThrows(utils.GraphWordException.class,
+                () -> new GraphManipulator(mockDriver, ConnectMode.NEIGHBOR_INDEX, 0));
+    }
+
     @Test
     void testConnectWithExistingWords() {
-        Set<String> words = Set.of("word1", "word2");
+        Set<String> words = Set.of("cat", "dog");
 
-        Result mockSearchResult = mock(Result.class);
         Result mockCountResult = mock(Result.class);
-        org.neo4j.driver.Record mockRecord = mock(org.neo4j.driver.Record.class);
         org.neo4j.driver.Record mockCountRecord = mock(org.neo4j.driver.Record.class);
+        when(mockCountRecord.get("nodeCount")).thenReturn(Values.value(3));
+        setupMockResult(mockCountResult, true, mockCountRecord);
+        when(mockSession.run("MATCH (n) RETURN count(n) AS nodeCount"))
+                .thenReturn(mockCountResult);
+
+        Result mockNamesResult = mock(Result.class);
+        org.neo4j.driver.Record mockNameRecord = mock(org.neo4j.driver.Record.class);
+        when(mockNameRecord.get("name")).thenReturn(Values.value("hat"));
+        when(mockNamesResult.hasNext()).thenReturn(true, false);
+        when(mockNamesResult.next()).thenReturn(mockNameRecord);
+        when(mockSession.run("MATCH (w:Word) RETURN w.name AS name"))
+                .thenReturn(mockNamesResult);
+
+        Transaction mockTransaction = mockWriteTransactions();
+
+        assertDoesNotThrow(() -> graphManipulator.connectWithExistingWords(words));
+        verify(mockTransaction).run(contains("MATCH (w1:Word {name: pair[0]})"),
+                eq(Values.parameters("pairs", List.of(List.of("cat", "hat")))));
+    }
 
-        when(mockCountRecord.get("nodeCount")).thenReturn(Values.value(1));
+    @Test
+    void testConnectWithExistingWordsReusesIndex() {
+        Result mockCountResult = mock(Result.class);
+        org.neo4j.driver.Record mockCountRecord = mock(org.neo4j.driver.Record.class);
+        when(mockCountRecord.get("nodeCount")).thenReturn(Values.value(3));
         when(mockCountResult.hasNext()).thenReturn(true);
         when(mockCountResult.next()).thenReturn(mockCountRecord);
         when(mockSession.run("MATCH (n) RETURN count(n) AS nodeCount"))
                 .thenReturn(mockCountResult);
 
-        when(mockRecord.get("name")).thenReturn(Values.value("word1"));
-        when(mockSearchResult.hasNext()).thenReturn(true, false);
-        when(mockSearchResult.next()).thenReturn(mockRecord);
-        when(mockSession.run(
-                "MATCH (w:Word) WHERE w.name IN $words RETURN w.name as name",
-                Values.parameters("words", words)
-        )).thenReturn(mockSearchResult);
+        Result mockNamesResult = mock(Result.class);
+        when(mockNamesResult.hasNext()).thenReturn(false);
+        when(mockSession.run("MATCH (w:Word) RETURN w.name AS name"))
+                .thenReturn(mockNamesResult);
 
-        assertDoesNotThrow(() -> {
-            graphManipulator.connectWithExistingWords(words);
-        });
+        Transaction mockTransaction = mockWriteTransactions();
+
+        graphManipulator.connectWithExistingWords(Set.of("cat"));
+        graphManipulator.connectWithExistingWords(Set.of("cot"));
+
+        verify(mockSession, times(1)).run("MATCH (w:Word) RETURN w.name AS name");
+        verify(mockTransaction).run(anyString(),
+                eq(Values.parameters("pairs", List.of(List.of("cot", "cat")))));
     }
 
     @Test
-    void testConnectWords() {
-        Set<String> words = Set.of("word1", "word2");
-        Result mockResult = mock(Result.class);
+    void testInterleavedBatchesAreConnectedToEachOther() throws Exception {
+        List<String> stored = new java.util.concurrent.CopyOnWriteArrayList<>(List.of("bat"));
+        mockStoredWords(stored);
+        mockNodeCount(3);
+        Transaction mockTransaction = mockWriteTransactions();
+        java.util.concurrent.CountDownLatch catWriting = new java.util.concurrent.CountDownLatch(1);
+        java.util.concurrent.CountDownLatch release = new java.util.concurrent.CountDownLatch(1);
+        when(mockTransaction.run(anyString(), eq(Values.parameters("pairs", List.of(List.of("cat", "bat"))))))
+                .thenAnswer(invocation -> {
+                    catWriting.countDown();
+                    release.await(5, java.util.concurrent.TimeUnit.SECONDS);
+                    return mock(Result.class, RETURNS_DEEP_STUBS);
+                });
 
-        when(mockResult.hasNext()).thenReturn(false);
-        when(mockSession.run(anyString(), any(Value.class))).thenReturn(mockResult);
+        // Both batches are inserted before either is connected, as with two concurrent writers
+        graphManipulator.insertWords(Set.of("cat"));
+        stored.add("cat");
+        graphManipulator.insertWords(Set.of("hat"));
+        stored.add("hat");
+        Thread first = new Thread(() -> graphManipulator.connectWithExistingWords(Set.of("cat")));
+        first.start();
+        assertTrue(catWriting.await(5, java.util.concurrent.TimeUnit.SECONDS), "The first batch never started writing");
+        graphManipulator.connectWithExistingWords(Set.of("hat"));
+        release.countDown();
+        first.join();
+
+        verify(mockSession, times(1)).run("MATCH (w:Word) RETURN w.name AS name");
+        verify(mockTransaction).run(anyString(),
+                eq(Values.parameters("pairs", List.of(List.of("hat", "bat"), List.of("hat", "cat")))));
+    }
+
+    @Test
+    void testFailedBatchIsNotIndexed() {
+        mockStoredWords("bat");
+        mockNodeCount(3);
+        Transaction mockTransaction = mockWriteTransactions();
+        when(mockTransaction.run(anyString(), eq(Values.parameters("pairs", List.of(List.of("cat", "bat"))))))
+                .thenThrow(new RuntimeException("Connection lost"));
+
+        assertThrows(utils.GraphWordException.class,
+                () -> graphManipulator.connectWithExistingWords(Set.of("cat")));
+        graphManipulator.connectWithExistingWords(Set.of("hat"));
+
+        // The failed word is not treated as stored, so the later batch does not pair with it
+        verify(mockTransaction).run(anyString(),
+                eq(Values.parameters("pairs", List.of(List.of("hat", "bat")))));
+    }
+
+    @Test
+    void testConnectWithExistingWordsCandidateMode() {
+        graphManipulator = new GraphManipulator(mockDriver, ConnectMode.CANDIDATES);
+
+        Result mockCountResult = mock(Result.class);
+        org.neo4j.driver.Record mockCountRecord = mock(org.neo4j.driver.Record.class);
+        when(mockCountRecord.get("nodeCount")).thenReturn(Values.value(3));
+        setupMockResult(mockCountResult, true, mockCountRecord);
+        when(mockSession.run("MATCH (n) RETURN count(n) AS nodeCount"))
+                .thenReturn(mockCountResult);
+
+        Transaction mockTransaction = mockWriteTransactions();
+
+        assertDoesNotThrow(() -> graphManipulator.connectWithExistingWords(Set.of("cat")));
+        verify(mockSession, never()).run("MATCH (w:Word) RETURN w.name AS name");
+        verify(mockTransaction).run(contains("UNWIND entry.candidates AS candidate"), eq(Values.parameters("entries",
+                List.of(java.util.Map.of("word", "cat", "candidates", graphManipulator.oneLetterVariants("cat"))))));
+    }
+
+    @Test
+    void testListenersAreNotifiedAfterWrites() {
+        GraphChangeListener listener = mock(GraphChangeListener.class);
+        when(listener.needsPairs()).thenReturn(true);
+        graphManipulator.addGraphChangeListener(listener);
+        mockStoredWords();
+        mockWriteTransactions();
+
+        graphManipulator.insertWords(Set.of("cat"));
+        graphManipulator.connectWords(Set.of("cat", "hat"));
+
+        verify(listener).wordsInserted(List.of("cat"));
+        verify(listener).wordsConnected(argThat(pairs -> pairs.size() == 1
+                && Set.copyOf(pairs.iterator().next()).equals(Set.of("cat", "hat"))));
+    }
+
+    @Test
+    void testCandidateModeReportsMatchedPairsToListeners() {
+        graphManipulator = new GraphManipulator(mockDriver, ConnectMode.CANDIDATES);
+        GraphChangeListener listener = mock(GraphChangeListener.class);
+        when(listener.needsPairs()).thenReturn(true);
+        graphManipulator.addGraphChangeListener(listener);
+
+        Result mockCountResult = mock(Result.class);
+        org.neo4j.driver.Record mockCountRecord = mock(org.neo4j.driver.Record.class);
+        when(mockCountRecord.get("nodeCount")).thenReturn(Values.value(3));
+        setupMockResult(mockCountResult, true, mockCountRecord);
+        when(mockSession.run("MATCH (n) RETURN count(n) AS nodeCount"))
+                .thenReturn(mockCountResult);
+
+        Transaction mockTransaction = mockWriteTransactions();
+        Result mockPairs = mock(Result.class, RETURNS_DEEP_STUBS);
+        when(mockPairs.list(any())).thenReturn(List.of(List.of("cat", "hat")));
+        when(mockPairs.consume().counters().relationshipsCreated()).thenReturn(1);
+        when(mockTransaction.run(contains("RETURN w1.name AS word"), any(Value.class))).thenReturn(mockPairs);
+
+        graphManipulator.connectWithExistingWords(Set.of("cat"));
+
+        verify(listener).wordsConnected(List.of(List.of("cat", "hat")));
+        verify(listener).edgesCreated(1);
+    }
+
+    @Test
+    void testCandidateModeSkipsThePairsWhenListenersOnlyCount() {
+        graphManipulator = new GraphManipulator(mockDriver, ConnectMode.CANDIDATES);
+        GraphChangeListener listener = mock(GraphChangeListener.class);
+        when(listener.needsPairs()).thenReturn(false);
+        graphManipulator.addGraphChangeListener(listener);
+
+        Result mockCountResult = mock(Result.class);
+        org.neo4j.driver.Record mockCountRecord = mock(org.neo4j.driver.Record.class);
+        when(mockCountRecord.get("nodeCount")).thenReturn(Values.value(3));
+        setupMockResult(mockCountResult, true, mockCountRecord);
+        when(mockSession.run("MATCH (n) RETURN count(n) AS nodeCount"))
+                .thenReturn(mockCountResult);
+
+        Transaction mockTransaction = mockWriteTransactions();
+        Result mockWrite = mock(Result.class, RETURNS_DEEP_STUBS);
+        when(mockWrite.consume().counters().relationshipsCreated()).thenReturn(2);
+        when(mockTransaction.run(contains("UNWIND entry.candidates AS candidate"), any(Value.class))).thenReturn(mockWrite);
+
+        graphManipulator.connectWithExistingWords(Set.of("cat"));
+
+        verify(mockTransaction, never()).run(contains("RETURN w1.name AS word"), any(Value.class));
+        verify(listener, never()).wordsConnected(any());
+        verify(listener).edgesCreated(2);
+    }
+
+    @Test
+    void testWriteCommunityIdsInBatchesBetweenMarkers() {
+        graphManipulator = new GraphManipulator(mockDriver, ConnectMode.NEIGHBOR_INDEX, 2);
+        Transaction mockTransaction = mockWriteTransactions();
+
+        graphManipulator.writeCommunityIds(java.util.Map.of("cat", 0, "hat", 0, "dog", 1),
+                new engine.GraphSnapshot.Stamp(3, 1));
+
+        org.mockito.InOrder inOrder = inOrder(mockTransaction);
+        inOrder.verify(mockTransaction).run("MATCH (m:CommunityAssignment) DELETE m");
+        inOrder.verify(mockTransaction, times(2)).run(contains("SET w.communityId = row.communityId"), any(Value.class));
+        inOrder.verify(mockTransaction).run(contains("CREATE (:CommunityAssignment"),
+                eq(Values.parameters("wordCount", 3L, "edgeCount", 1L)));
+    }
+
+    @Test
+    void testOneLetterVariants() {
+        List<String> variants = graphManipulator.oneLetterVariants("cat");
+
+        assertEquals(75, variants.size());
+        assertTrue(variants.contains("hat"));
+        assertTrue(variants.contains("cot"));
+        assertTrue(variants.contains("caz"));
+        assertFalse(variants.contains("cat"));
+        variants.forEach(variant -> assertTrue(graphManipulator.isOneLetterDifference("cat", variant)));
+    }
+
+    @Test
+    void testConnectWords() {
+        Set<String> words = Set.of("word1", "word2", "other");
+        Transaction mockTransaction = mockWriteTransactions();
 
         assertDoesNotThrow(() -> {
             graphManipulator.connectWords(words);
-            verify(mockSession, atLeastOnce()).run(anyString(), any(Value.class));
+            verify(mockSession, times(1)).writeTransaction(any());
+            verify(mockTransaction).run(contains("UNWIND $pairs AS pair"), any(Value.class));
+        });
+    }
+
+    private Transaction mockWriteTransactions() {
+        // Deep stubs let the writes read the counters of their summaries
+        Transaction mockTransaction = mock(Transaction.class, RETURNS_DEEP_STUBS);
+        when(mockSession.writeTransaction(any())).thenAnswer(invocation -> {
+            TransactionWork<?> work = invocation.getArgument(0);
+            return work.execute(mockTransaction);
         });
+        return mockTransaction;
     }
 
     @Test
@@ -0,0 +1,73 @@
+package storage;
+
+import engine.CsrGraph;
+import engine.GraphSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.GraphWordException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphSnapshotStoreTest {
+
+    @Test
+    void testLoadWithoutSnapshotReturnsNull(@TempDir Path directory) {
+        assertNull(new GraphSnapshotStore(directory.resolve("missing.snapshot")).load());
+    }
+
+    @Test
+    void testSavedGraphIsServedAfterRestart(@TempDir Path directory) {
+        GraphSnapshotStore store = new GraphSnapshotStore(directory.resolve("graph.snapshot"));
+        InMemoryGraphAnalyzer analyzer = new InMemoryGraphAnalyzer();
+        analyzer.wordsInserted(List.of("cat", "hat", "hot", "dog"));
+        analyzer.wordsConnected(List.of(List.of("cat", "hat"), List.of("hat", "hot")));
+
+        store.save(analyzer.graph());
+        InMemoryGraphAnalyzer restarted = new InMemoryGraphAnalyzer(store.load());
+
+        assertEquals(List.of("cat", "hat", "hot"), restarted.findShortestPath("cat", "hot"));
+        assertEquals(List.of("dog"), restarted.findIsolatedNodes());
+    }
+
+    @Test
+    void testCorruptedSnapshotIsReported(@TempDir Path directory) throws Exception {
+        Path path = Files.writeString(directory.resolve("graph.snapshot"), "garbage");
+
+        assertThrows(GraphWordException.class, () -> new GraphSnapshotStore(path).load());
+    }
+
+    @Test
+    void testReplayBuildsOtherViews() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("cat", "hat").addEdge("hat", "hot").addWord("dog");
+        ComponentIndex componentIndex = new ComponentIndex();
+        DegreeIndex degreeIndex = new DegreeIndex();
+
+        GraphSnapshotStore.replay(builder.build(), componentIndex, degreeIndex);
+
+        assertEquals(Map.of(3, 1, 1, 1), componentIndex.componentSizes());
+        assertEquals(2, degreeIndex.degreeOf("hat"));
+        assertEquals(List.of("dog"), componentIndex.isolatedWords());
+    }
+
+    @Test
+    void testSnapshotThatMissedWritesIsIgnored(@TempDir Path directory) {
+        AtomicReference<GraphSnapshot.Stamp> source = new AtomicReference<>(new GraphSnapshot.Stamp(2, 1));
+        GraphSnapshotStore store = new GraphSnapshotStore(directory.resolve("graph.snapshot"), source::get);
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("cat", "hat");
+        store.save(builder.build());
+
+        assertNotNull(store.load());
+
+        // Neo4j committed another word after the snapshot was written
+        source.set(new GraphSnapshot.Stamp(3, 1));
+        assertNull(store.load());
+    }
+}
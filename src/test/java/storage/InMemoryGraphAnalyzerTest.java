@@ -0,0 +1,137 @@
+package storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryGraphAnalyzerTest {
+
+    private InMemoryGraphAnalyzer analyzer;
+
+    // cat - hat - hot - dot, cat - cot - hot, plus the isolated word "zebra"
+    @BeforeEach
+    void setUp() {
+        analyzer = new InMemoryGraphAnalyzer();
+        analyzer.wordsInserted(List.of("cat", "hat", "hot", "dot", "cot", "zebra"));
+        analyzer.wordsConnected(List.of(
+                List.of("cat", "hat"), List.of("hat", "hot"), List.of("hot", "dot"),
+                List.of("cat", "cot"), List.of("cot", "hot")));
+    }
+
+    @Test
+    void testFindShortestPath() {
+        List<String> path = analyzer.findShortestPath("cat", "dot");
+
+        assertEquals(4, path.size());
+        assertEquals("cat", path.get(0));
+        assertEquals("hot", path.get(2));
+        assertEquals("dot", path.get(3));
+        assertEquals(List.of(), analyzer.findShortestPath("cat", "cat"));
+        assertTrue(analyzer.findShortestPath("cat", "zebra").isEmpty());
+        assertTrue(analyzer.findShortestPath("cat", "unknown").isEmpty());
+    }
+
+    @Test
+    void testFindShortestPathsKeepsInputOrder() {
+        List<List<String>> pairs = List.of(
+                List.of("cat", "dot"), List.of("cat", "hat"), List.of("hot", "cat"),
+                List.of("cat", "zebra"), List.of("cat", "unknown"), List.of("cat", "cat"));
+
+        List<List<String>> paths = analyzer.findShortestPaths(pairs);
+
+        assertEquals(pairs.size(), paths.size());
+        for (int i = 0; i < pairs.size(); i++) {
+            List<String> single = analyzer.findShortestPath(pairs.get(i).get(0), pairs.get(i).get(1));
+            assertEquals(single.size(), paths.get(i).size(), "Pair " + i);
+            if (!single.isEmpty()) {
+                assertEquals(pairs.get(i).get(0), paths.get(i).get(0));
+                assertEquals(pairs.get(i).get(1), paths.get(i).get(paths.get(i).size() - 1));
+            }
+        }
+        assertTrue(paths.get(3).isEmpty());
+        assertTrue(paths.get(4).isEmpty());
+        assertTrue(paths.get(5).isEmpty());
+    }
+
+    @Test
+    void testFindAllPathsInOrderOfLength() {
+        List<List<String>> paths = analyzer.findAllPaths("cat", "hot");
+
+        assertEquals(2, paths.size());
+        assertEquals(Set.of(List.of("cat", "hat", "hot"), List.of("cat", "cot", "hot")), Set.copyOf(paths));
+        assertEquals(Set.of(List.of("cat", "hat", "hot", "dot"), List.of("cat", "cot", "hot", "dot")),
+                Set.copyOf(analyzer.findAllPaths("cat", "dot")));
+        assertEquals(1, analyzer.findAllPaths("cat", "dot", 1, 10).size());
+        assertTrue(analyzer.findAllPaths("cat", "dot", 5, 2).isEmpty());
+        assertEquals(List.of(), analyzer.findAllPaths("cat", "cat"));
+    }
+
+    @Test
+    void testFindMaximumDistance() {
+        assertEquals(3, analyzer.findMaximumDistance());
+        MaximumDistance maximumDistance = analyzer.findMaximumDistanceWithEndpoints();
+        assertEquals(3, maximumDistance.getMaximumDistance());
+        assertEquals(Set.of("cat", "dot"), Set.of(maximumDistance.getSource(), maximumDistance.getTarget()));
+        assertEquals(-1, new InMemoryGraphAnalyzer().findMaximumDistance());
+    }
+
+    @Test
+    void testEstimateMaximumDistance() {
+        MaximumDistance estimate = analyzer.estimateMaximumDistance(50);
+
+        assertTrue(estimate.getLowerBound() <= 3 && estimate.getUpperBound() >= 3);
+        assertEquals(estimate.getLowerBound(), estimate.getMaximumDistance());
+        assertTrue(estimate.getSourcesUsed() > 0);
+        assertNull(analyzer.findMaximumDistanceWithEndpoints().getLowerBound());
+    }
+
+    @Test
+    void testEstimateMaximumDistanceOnEmptyGraphAfterExactCall() {
+        InMemoryGraphAnalyzer empty = new InMemoryGraphAnalyzer();
+
+        assertEquals(-1, empty.findMaximumDistanceWithEndpoints().getMaximumDistance());
+        MaximumDistance estimate = empty.estimateMaximumDistance(50);
+
+        assertEquals(-1, estimate.getMaximumDistance());
+        assertNull(estimate.getSource());
+    }
+
+    @Test
+    void testIsolatedNodesAndDegrees() {
+        assertEquals(List.of("zebra"), analyzer.findIsolatedNodes());
+        assertEquals(List.of("hot"), analyzer.findHighConnectivityNodes(3));
+        assertEquals(List.of("dot"), analyzer.findNodesByDegree(1));
+        assertEquals(List.of("Error: No nodes found with the specified degree."), analyzer.findNodesByDegree(7));
+    }
+
+    @Test
+    void testFindComponentSizes() {
+        assertEquals(Map.of(5, 1, 1, 1), analyzer.findComponentSizes());
+        assertEquals(Map.of(0, 1, 1, 1, 2, 3, 3, 1), analyzer.findDegreeHistogram());
+    }
+
+    @Test
+    void testFindCommunitiesCoversEveryWord() {
+        List<List<String>> communities = analyzer.findCommunities();
+
+        assertEquals(6, communities.stream().mapToInt(List::size).sum());
+        assertTrue(communities.contains(List.of("zebra")));
+        assertSame(communities, analyzer.findCommunities());
+    }
+
+    @Test
+    void testChangesAreAppliedBeforeTheNextQuery() {
+        assertTrue(analyzer.findShortestPath("dot", "dog").isEmpty());
+
+        analyzer.wordsInserted(List.of("dog"));
+        analyzer.wordsConnected(List.of(List.of("dot", "dog")));
+
+        assertEquals(List.of("dot", "dog"), analyzer.findShortestPath("dot", "dog"));
+        assertEquals(7, analyzer.graph().nodeCount());
+    }
+}
@@ -0,0 +1,76 @@
+package storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class IndexedGraphAnalysisTest {
+
+    private GraphAnalysis mockDelegate;
+    private IndexedGraphAnalysis analysis;
+
+    @BeforeEach
+    void setUp() {
+        mockDelegate = mock(GraphAnalysis.class);
+        ComponentIndex componentIndex = new ComponentIndex();
+        componentIndex.wordsInserted(List.of("cat", "hat", "dog"));
+        componentIndex.wordsConnected(List.of(List.of("cat", "hat")));
+        DegreeIndex degreeIndex = new DegreeIndex();
+        degreeIndex.wordsInserted(List.of("cat", "hat", "dog"));
+        degreeIndex.wordsConnected(List.of(List.of("cat", "hat")));
+        analysis = new IndexedGraphAnalysis(mockDelegate, componentIndex, degreeIndex);
+    }
+
+    @Test
+    void testUnreachablePairsSkipTheDelegate() {
+        assertTrue(analysis.findShortestPath("cat", "dog").isEmpty());
+        assertTrue(analysis.findAllPaths("cat", "unknown", 10, 10).isEmpty());
+        verifyNoInteractions(mockDelegate);
+
+        when(mockDelegate.findShortestPath("cat", "hat")).thenReturn(List.of("cat", "hat"));
+        assertEquals(List.of("cat", "hat"), analysis.findShortestPath("cat", "hat"));
+    }
+
+    @Test
+    void testBatchOnlySendsConnectedPairs() {
+        when(mockDelegate.findShortestPaths(List.of(List.of("cat", "hat"))))
+                .thenReturn(List.of(List.of("cat", "hat")));
+
+        List<List<String>> paths = analysis.findShortestPaths(
+                List.of(List.of("cat", "dog"), List.of("cat", "hat"), List.of("hat", "unknown")));
+
+        assertEquals(List.of(List.of(), List.of("cat", "hat"), List.of()), paths);
+        verify(mockDelegate).findShortestPaths(List.of(List.of("cat", "hat")));
+    }
+
+    @Test
+    void testIsolationAndComponentsComeFromTheIndex() {
+        assertEquals(List.of("dog"), analysis.findIsolatedNodes());
+        assertEquals(Map.of(2, 1, 1, 1), analysis.findComponentSizes());
+        verify(mockDelegate, never()).findIsolatedNodes();
+        verify(mockDelegate, never()).findComponentSizes();
+    }
+
+    @Test
+    void testDegreeQueriesComeFromTheIndex() {
+        assertEquals(List.of("cat", "hat"), analysis.findNodesByDegree(1));
+        assertEquals(List.of("Error: No nodes found with the specified degree."), analysis.findNodesByDegree(5));
+        assertEquals(List.of("cat", "hat"), analysis.findHighConnectivityNodes(1));
+        assertEquals(Map.of(0, 1, 1, 2), analysis.findDegreeHistogram());
+        verifyNoInteractions(mockDelegate);
+    }
+
+    @Test
+    void testOtherQueriesAreDelegated() {
+        when(mockDelegate.findCommunities()).thenReturn(List.of(List.of("cat", "hat")));
+
+        assertEquals(List.of(List.of("cat", "hat")), analysis.findCommunities());
+        analysis.close();
+        verify(mockDelegate).close();
+    }
+}
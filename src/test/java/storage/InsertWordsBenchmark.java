@@ -0,0 +1,85 @@
+package storage;
+
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Values;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Compares the per-word MERGE loop that insertWords used to run with the UNWIND-batched path.
+ * It needs a running Neo4j, so it is not part of the test suite. Run it with:
+ *
+ *   NEO4J_URI=bolt://localhost:7687 NEO4J_USER=neo4j NEO4J_PASSWORD=secret \
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=storage.InsertWordsBenchmark -Dexec.args="20000 1000"
+ *
+ * Arguments: number of words (default 20000) and batch size (default 1000).
+ * The benchmark only touches words starting with "zqbench" and removes them afterwards.
+ */
+public class InsertWordsBenchmark {
+
+    private static final String PREFIX = "zqbench";
+
+    public static void main(String[] args) {
+        int wordCount = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : GraphManipulator.DEFAULT_INSERT_BATCH_SIZE;
+        Set<String> words = benchmarkWords(wordCount);
+
+        try (Driver driver = GraphDatabase.driver(System.getenv("NEO4J_URI"),
+                AuthTokens.basic(System.getenv("NEO4J_USER"), System.getenv("NEO4J_PASSWORD")))) {
+            deleteBenchmarkWords(driver);
+
+            long start = System.nanoTime();
+            insertPerWord(driver, words);
+            long perWordMillis = (System.nanoTime() - start) / 1_000_000;
+            deleteBenchmarkWords(driver);
+
+            GraphManipulator manipulator = new GraphManipulator(driver, ConnectMode.NEIGHBOR_INDEX, batchSize);
+            start = System.nanoTime();
+            manipulator.insertWords(words);
+            long batchedMillis = (System.nanoTime() - start) / 1_000_000;
+            deleteBenchmarkWords(driver);
+
+            int batches = (wordCount + batchSize - 1) / batchSize;
+            System.out.printf("words=%d batchSize=%d%n", wordCount, batchSize);
+            System.out.printf("per-word loop: %d statements, 1 transaction, %d ms%n", wordCount, perWordMillis);
+            System.out.printf("UNWIND batches: %d statements, %d transactions, %d ms%n", batches, batches, batchedMillis);
+        }
+    }
+
+    // The loop insertWords used before batching: one MERGE round trip per word in a single transaction
+    private static void insertPerWord(Driver driver, Set<String> words) {
+        try (Session session = driver.session()) {
+            session.writeTransaction(tx -> {
+                for (String word : words) {
+                    tx.run("MERGE (w:Word {name: $word})", Values.parameters("word", word));
+                }
+                return null;
+            });
+        }
+    }
+
+    private static void deleteBenchmarkWords(Driver driver) {
+        try (Session session = driver.session()) {
+            session.run("MATCH (w:Word) WHERE w.name STARTS WITH $prefix DETACH DELETE w",
+                    Values.parameters("prefix", PREFIX)).consume();
+        }
+    }
+
+    private static Set<String> benchmarkWords(int count) {
+        Set<String> words = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder word = new StringBuilder(PREFIX);
+            int n = i;
+            do {
+                word.append((char) ('a' + n % 26));
+                n /= 26;
+            } while (n > 0);
+            words.add(word.toString());
+        }
+        return words;
+    }
+}
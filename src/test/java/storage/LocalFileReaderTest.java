@@ -0,0 +1,51 @@
+package storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalFileReaderTest {
+
+    @Test
+    void testExtractWords(@TempDir Path directory) throws IOException {
+        Path file = Files.writeString(directory.resolve("book.txt"), "The cat sat.\nOn the MAT, the end\n");
+
+        Set<String> words = new LocalFileReader().extractWords(file.toString());
+
+        assertEquals(Set.of("the", "cat", "end"), words);
+    }
+
+    @Test
+    void testParallelExtractionMatchesSequential(@TempDir Path directory) throws IOException {
+        String alphabet = "abcdefXYZ \n\t.,'é";
+        Random random = new Random(7);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        text.append(" lastword");
+        Path file = Files.writeString(directory.resolve("large.txt"), text);
+
+        Set<String> sequential = new LocalFileReader().extractWords(file.toString());
+        // Small chunks force many boundaries, including some inside long runs of letters
+        LocalFileReader parallelReader = new LocalFileReader(0, 1000);
+
+        assertEquals(sequential, parallelReader.extractWords(file.toString()));
+        assertEquals(sequential, parallelReader.extractWordsParallel(file.toString()));
+        assertTrue(sequential.contains("lastword"));
+    }
+
+    @Test
+    void testParallelExtractionOfEmptyFile(@TempDir Path directory) throws IOException {
+        Path file = Files.writeString(directory.resolve("empty.txt"), "");
+
+        assertTrue(new LocalFileReader(0, 1000).extractWords(file.toString()).isEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+package storage;
+
+import engine.GraphSnapshot;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.*;
+import utils.GraphWordException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class Neo4jGraphLoaderTest {
+
+    @Test
+    void testLoadReplaysWordsAndEdges() {
+        Driver mockDriver = mock(Driver.class);
+        Session mockSession = mock(Session.class);
+        when(mockDriver.session()).thenReturn(mockSession);
+
+        Result mockWords = mock(Result.class);
+        org.neo4j.driver.Record cat = mock(org.neo4j.driver.Record.class);
+        org.neo4j.driver.Record hat = mock(org.neo4j.driver.Record.class);
+        when(cat.get("name")).thenReturn(Values.value("cat"));
+        when(hat.get("name")).thenReturn(Values.value("hat"));
+        when(mockWords.hasNext()).thenReturn(true, true, false);
+        when(mockWords.next()).thenReturn(cat, hat);
+        when(mockSession.run("MATCH (w:Word) RETURN w.name AS name")).thenReturn(mockWords);
+
+        Result mockEdges = mock(Result.class);
+        org.neo4j.driver.Record edge = mock(org.neo4j.driver.Record.class);
+        when(edge.get("source")).thenReturn(Values.value("cat"));
+        when(edge.get("target")).thenReturn(Values.value("hat"));
+        when(mockEdges.hasNext()).thenReturn(true, false);
+        when(mockEdges.next()).thenReturn(edge);
+        when(mockSession.run("MATCH (a:Word)-[:CONNECTED]->(b:Word) RETURN a.name AS source, b.name AS target"))
+                .thenReturn(mockEdges);
+
+        InMemoryGraphAnalyzer analyzer = new InMemoryGraphAnalyzer();
+        new Neo4jGraphLoader(mockDriver).load(analyzer);
+
+        assertEquals(2, analyzer.graph().nodeCount());
+        assertEquals(List.of("cat", "hat"), analyzer.findShortestPath("cat", "hat"));
+    }
+
+    @Test
+    void testLoadFailure() {
+        Driver mockDriver = mock(Driver.class);
+        when(mockDriver.session()).thenThrow(new RuntimeException("Unable to connect"));
+
+        GraphWordException exception = assertThrows(GraphWordException.class,
+                () -> new Neo4jGraphLoader(mockDriver).load(new InMemoryGraphAnalyzer()));
+        assertTrue(exception.getMessage().contains("Unable to connect"));
+    }
+
+    @Test
+    void testStampCountsWordsAndEdges() {
+        Driver mockDriver = mock(Driver.class);
+        Session mockSession = mock(Session.class);
+        when(mockDriver.session()).thenReturn(mockSession);
+        Result words = mock(Result.class);
+        Result edges = mock(Result.class);
+        org.neo4j.driver.Record wordCount = mock(org.neo4j.driver.Record.class);
+        org.neo4j.driver.Record edgeCount = mock(org.neo4j.driver.Record.class);
+        when(wordCount.get("count")).thenReturn(Values.value(5L));
+        when(edgeCount.get("count")).thenReturn(Values.value(3L));
+        when(words.single()).thenReturn(wordCount);
+        when(edges.single()).thenReturn(edgeCount);
+        when(mockSession.run("MATCH (w:Word) RETURN count(w) AS count")).thenReturn(words);
+        when(mockSession.run("MATCH ()-[r:CONNECTED]->() RETURN count(r) AS count")).thenReturn(edges);
+
+        assertEquals(new GraphSnapshot.Stamp(5, 3), new Neo4jGraphLoader(mockDriver).stamp());
+    }
+}
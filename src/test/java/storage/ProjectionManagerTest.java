@@ -0,0 +1,85 @@
+package storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ProjectionManagerTest {
+
+    private GraphManipulation mockGraphManipulation;
+
+    @BeforeEach
+    void setUp() {
+        mockGraphManipulation = mock(GraphManipulation.class);
+    }
+
+    @Test
+    void testMarkStaleOutsideBatchRefreshesImmediately() {
+        ProjectionManager projectionManager = new ProjectionManager(mockGraphManipulation, "myGraph");
+
+        projectionManager.markStale();
+
+        verify(mockGraphManipulation, times(1)).ensureGraphProjection("myGraph");
+        assertFalse(projectionManager.isStale());
+    }
+
+    @Test
+    void testBatchRefreshesOnce() {
+        ProjectionManager projectionManager = new ProjectionManager(mockGraphManipulation, "myGraph");
+
+        projectionManager.beginBatch();
+        for (int i = 0; i < 5; i++) {
+            projectionManager.markStale();
+        }
+        verifyNoInteractions(mockGraphManipulation);
+        projectionManager.endBatch();
+
+        verify(mockGraphManipulation, times(1)).ensureGraphProjection("myGraph");
+        assertEquals(1, projectionManager.getRefreshCount());
+    }
+
+    @Test
+    void testQuietPeriodCoalescesWrites() throws InterruptedException {
+        try (ProjectionManager projectionManager = new ProjectionManager(mockGraphManipulation, "myGraph",
+                100, ProjectionManager.Freshness.STRICT)) {
+            for (int i = 0; i < 5; i++) {
+                projectionManager.markStale();
+            }
+            verifyNoInteractions(mockGraphManipulation);
+
+            verify(mockGraphManipulation, timeout(2000).times(1)).ensureGraphProjection("myGraph");
+            Thread.sleep(200);
+            verify(mockGraphManipulation, times(1)).ensureGraphProjection("myGraph");
+        }
+    }
+
+    @Test
+    void testStrictReadRefreshesStaleProjection() {
+        try (ProjectionManager projectionManager = new ProjectionManager(mockGraphManipulation, "myGraph",
+                60_000, ProjectionManager.Freshness.STRICT)) {
+            projectionManager.markStale();
+            projectionManager.beforeRead();
+
+            verify(mockGraphManipulation, times(1)).ensureGraphProjection("myGraph");
+            assertFalse(projectionManager.isStale());
+        }
+    }
+
+    @Test
+    void testRelaxedReadServesLastProjection() {
+        try (ProjectionManager projectionManager = new ProjectionManager(mockGraphManipulation, "myGraph",
+                60_000, ProjectionManager.Freshness.RELAXED)) {
+            // No projection exists yet, so the first read has to build one
+            projectionManager.beforeRead();
+            verify(mockGraphManipulation, times(1)).ensureGraphProjection("myGraph");
+
+            projectionManager.markStale();
+            projectionManager.beforeRead();
+
+            verify(mockGraphManipulation, times(1)).ensureGraphProjection("myGraph");
+            assertTrue(projectionManager.isStale());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.*;
+import utils.GraphWordException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SchemaManagerTest {
+
+    private SchemaManager schemaManager;
+    private Driver mockDriver;
+    private Session mockSession;
+    private Result mockResult;
+
+    @BeforeEach
+    void setUp() {
+        mockDriver = mock(Driver.class);
+        mockSession = mock(Session.class);
+        mockResult = mock(Result.class);
+
+        when(mockDriver.session()).thenReturn(mockSession);
+        when(mockSession.run(anyString())).thenReturn(mockResult);
+        when(mockSession.run(anyString(), any(Value.class))).thenReturn(mockResult);
+        schemaManager = new SchemaManager(mockDriver);
+    }
+
+    @Test
+    void testBootstrapCreatesConstraintAndWaits() {
+        org.neo4j.driver.Record mockRecord = mock(org.neo4j.driver.Record.class);
+        when(mockRecord.get("name")).thenReturn(Values.value("word_name_unique"));
+        when(mockRecord.get("type")).thenReturn(Values.value("RANGE"));
+        when(mockRecord.get("properties")).thenReturn(Values.value(List.of("name")));
+        when(mockRecord.get("owningConstraint")).thenReturn(Values.value("word_name_unique"));
+        when(mockRecord.get("state")).thenReturn(Values.value("ONLINE"));
+        when(mockRecord.get("populationPercent")).thenReturn(Values.value(100.0));
+        when(mockResult.hasNext()).thenReturn(true, false);
+        when(mockResult.next()).thenReturn(mockRecord);
+
+        List<String> status = schemaManager.bootstrap(30);
+
+        verify(mockSession).run(contains("CREATE CONSTRAINT word_name_unique IF NOT EXISTS"));
+        verify(mockSession).run("CALL db.awaitIndexes($timeout)", Values.parameters("timeout", 30));
+        assertEquals(1, status.size());
+        assertTrue(status.get(0).contains("word_name_unique"));
+        assertTrue(status.get(0).contains("ONLINE"));
+    }
+
+    @Test
+    void testBootstrapFallsBackToIndex() {
+        when(mockSession.run(contains("CREATE CONSTRAINT")))
+                .thenThrow(new RuntimeException("An equivalent index already exists"));
+        when(mockResult.hasNext()).thenReturn(false);
+
+        assertDoesNotThrow(() -> schemaManager.bootstrap(30));
+        verify(mockSession).run(contains("CREATE INDEX word_name IF NOT EXISTS"));
+    }
+
+    @Test
+    void testBootstrapFailure() {
+        when(mockDriver.session()).thenThrow(new RuntimeException("Unable to connect"));
+
+        GraphWordException exception = assertThrows(GraphWordException.class, () -> schemaManager.bootstrap(30));
+        assertTrue(exception.getMessage().contains("Unable to connect"));
+    }
+}
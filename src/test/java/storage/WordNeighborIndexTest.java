@@ -0,0 +1,83 @@
+package storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordNeighborIndexTest {
+
+    @Test
+    void testAddReturnsExistingNeighbors() {
+        WordNeighborIndex index = new WordNeighborIndex();
+
+        assertTrue(index.add("cat").isEmpty());
+        assertEquals(List.of("cat"), index.add("hat"));
+        assertEquals(List.of("cat"), index.add("cot"));
+        assertEquals(Set.of("cat", "hat"), new HashSet<>(index.neighborsOf("bat")));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testAddIgnoresDuplicates() {
+        WordNeighborIndex index = new WordNeighborIndex();
+        index.add("cat");
+        index.add("hat");
+
+        assertTrue(index.add("hat").isEmpty(), "A word already indexed should not report neighbors again");
+        assertTrue(index.contains("hat"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testNeighborsOfExcludesWordItself() {
+        WordNeighborIndex index = new WordNeighborIndex();
+        index.add("cat");
+        index.add("cot");
+
+        assertEquals(List.of("cot"), index.neighborsOf("cat"));
+    }
+
+    @Test
+    void testConnectedPairsMatchesPairwiseCheck() {
+        List<String> words = List.of("cat", "hat", "cot", "cog", "dog", "word", "ward", "lord", "cold", "words", "at");
+        GraphManipulator manipulator = new GraphManipulator(org.mockito.Mockito.mock(org.neo4j.driver.Driver.class));
+
+        Set<Set<String>> expected = new HashSet<>();
+        for (int i = 0; i < words.size(); i++) {
+            for (int j = i + 1; j < words.size(); j++) {
+                if (manipulator.isOneLetterDifference(words.get(i), words.get(j))) {
+                    expected.add(Set.of(words.get(i), words.get(j)));
+                }
+            }
+        }
+
+        List<List<String>> pairs = WordNeighborIndex.connectedPairs(words);
+        Set<Set<String>> actual = new HashSet<>();
+        for (List<String> pair : pairs) {
+            actual.add(Set.of(pair.get(0), pair.get(1)));
+        }
+
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), pairs.size(), "Each pair should be emitted exactly once");
+    }
+
+    @Test
+    void testConnectedPairsOnLargeVocabulary() {
+        List<String> words = new ArrayList<>();
+        for (char a = 'a'; a <= 'z'; a++) {
+            for (char b = 'a'; b <= 'z'; b++) {
+                for (char c = 'a'; c <= 'z'; c++) {
+                    words.add("" + a + b + c);
+                }
+            }
+        }
+
+        // Every three-letter word has 3 * 25 neighbors, and each pair is counted once.
+        assertEquals(words.size() * 75 / 2, WordNeighborIndex.connectedPairs(words).size());
+    }
+}
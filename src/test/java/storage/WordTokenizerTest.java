@@ -0,0 +1,86 @@
+package storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordTokenizerTest {
+
+    // The filtering both readers applied before the tokenizer existed
+    private static Set<String> regexWords(String text) {
+        Set<String> words = new HashSet<>();
+        for (String line : text.split("\\r?\\n|\\r", -1)) {
+            for (String token : line.split("\\s+")) {
+                if (token.matches("[a-zA-Z]+") && token.length() >= 3) {
+                    words.add(token.toLowerCase());
+                }
+            }
+        }
+        return words;
+    }
+
+    private static List<String> tokenize(String text, int bufferSize) throws IOException {
+        WordTokenizer tokenizer = new WordTokenizer(new StringReader(text), bufferSize);
+        List<String> words = new ArrayList<>();
+        String word;
+        while ((word = tokenizer.nextWord()) != null) {
+            words.add(word);
+        }
+        return words;
+    }
+
+    @Test
+    void testAcceptsOnlyAsciiLetterTokens() throws IOException {
+        List<String> words = tokenize("The cat, sat on\tthe MAT\r\nniño don't a1b longword\u000Bend", 8192);
+
+        assertEquals(List.of("the", "sat", "the", "mat", "longword", "end"), words);
+    }
+
+    @Test
+    void testLastWordWithoutTrailingWhitespace() throws IOException {
+        assertEquals(List.of("hello", "world"), tokenize("  hello world", 8192));
+        assertEquals(List.of(), tokenize("", 8192));
+        assertEquals(List.of(), tokenize("ab", 8192));
+    }
+
+    @Test
+    void testWordsCrossingBufferBoundaries() throws IOException {
+        String longWord = "a".repeat(100);
+        assertEquals(List.of("alpha", longWord, "omega"), tokenize("alpha " + longWord + " omega", 3));
+    }
+
+    @Test
+    void testBatches() {
+        WordTokenizer tokenizer = new WordTokenizer(new StringReader("one two three four five six one seven"), 4);
+
+        List<Set<String>> batches;
+        try (var stream = tokenizer.batches(3)) {
+            batches = stream.toList();
+        }
+
+        assertEquals(List.of(Set.of("one", "two", "three"), Set.of("four", "five", "six"), Set.of("one", "seven")),
+                batches);
+    }
+
+    @Test
+    void testMatchesRegexFiltering() throws IOException {
+        String alphabet = "abcXYZ \t\n\r.,'1é";
+        Random random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 2000; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            assertEquals(regexWords(text.toString()), new HashSet<>(tokenize(text.toString(), 7 + run)));
+        }
+    }
+}